@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.embed.swing.JFXPanel;
+
+/**
+ * Reads one level of a directory with many sub directories, the way the
+ * directory chooser does when a folder is expanded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless",
+        "-Dprism.order=sw", "-Djava.awt.headless=true" })
+public class DirectoryWalkerBenchmark {
+
+    @Param({ "20000" })
+    public int subDirectories;
+
+    private Path directory;
+
+    private final BooleanSupplier cancelled = () -> false;
+
+    @Setup(Level.Trial)
+    public void createDirectories() throws IOException {
+        // tree items create their icons, hence the JavaFX toolkit must be running
+        new JFXPanel();
+        directory = Files.createTempDirectory("fxfilechooser-walker-");
+        for (int i = 0; i < subDirectories; i++) {
+            String name = (i % 2 == 0 ? "Folder" : "folder") + (subDirectories - i);
+            Files.createDirectory(directory.resolve(name));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectories() throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Benchmark
+    public int readOneLevel() {
+        DirectoryTreeItem item = new DirectoryWalker(directory, 0).read(cancelled);
+        return item.getChildren().size();
+    }
+}
@@ -0,0 +1,85 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.embed.swing.JFXPanel;
+
+/**
+ * Scans a generated directory with {@link FindFilesTask}, including the
+ * publication of all files into the list shown by the file chooser. The
+ * directory is served from the page cache after the first iteration, hence the
+ * result shows the cost of the scanning pipeline rather than of the device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless",
+        "-Dprism.order=sw", "-Djava.awt.headless=true" })
+public class FindFilesTaskBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int entries;
+
+    @Param({ "disk", "tmpfs" })
+    public String storage;
+
+    private Path directory;
+
+    private ObservableList<IndexedPath> target;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        // the task clears and fills its target list on the JavaFX application thread
+        new JFXPanel();
+        directory = GeneratedDirectories.withEntries(storage, entries);
+        target = FXCollections.observableList(new ArrayList<>(entries));
+    }
+
+    @Benchmark
+    public int scan() throws Exception {
+        FindFilesTask task = new FindFilesTask(directory, target);
+        int scanned = task.call();
+        // wait until the last publication arrived in the list
+        Invoke.andWait(() -> { /* nothing to do */ });
+        return scanned + target.size();
+    }
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Creates directories with a given number of entries for benchmarks. As
+ * creating a million files takes minutes, a generated directory is kept and
+ * reused by later runs until it is deleted manually. A marker file next to the
+ * directory, not inside it, records that it has been created completely.
+ * <p>
+ * Directories are created below a storage root:
+ * <ul>
+ * <li>{@code disk}: system property {@code benchmark.disk}, required as
+ * {@code java.io.tmpdir} is often a tmpfs. A tmpfs is rejected.</li>
+ * <li>{@code tmpfs}: system property {@code benchmark.tmpfs}, defaults to
+ * {@code /dev/shm}</li>
+ * </ul>
+ */
+public final class GeneratedDirectories {
+
+    /** Every n-th entry is a directory, which the file chooser skips. */
+    private static final int DIRECTORY_INTERVAL = 50;
+
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private GeneratedDirectories() {
+        /* static helper, not intended for instantiation */
+    }
+
+    /**
+     * @param storage {@code disk} or {@code tmpfs}
+     * @return root directory for the given storage
+     */
+    public static Path storageRoot(String storage) {
+        switch (storage) {
+            case "disk":
+                String disk = System.getProperty("benchmark.disk");
+                if (null == disk)
+                    throw new IllegalStateException("Set -Dbenchmark.disk=<path> to a directory on disk");
+                Path root = Paths.get(disk);
+                if (isTmpfs(root))
+                    throw new IllegalStateException(root + " is a tmpfs, set -Dbenchmark.disk=<path> to a directory"
+                            + " on disk or run with -p storage=tmpfs");
+                return root;
+            case "tmpfs":
+                Path tmpfs = Paths.get(System.getProperty("benchmark.tmpfs", "/dev/shm"));
+                if (!Files.isDirectory(tmpfs))
+                    throw new IllegalStateException("No tmpfs at " + tmpfs
+                            + ", set -Dbenchmark.tmpfs=<path> or run with -p storage=disk");
+                return tmpfs;
+            default:
+                throw new IllegalArgumentException("Unknown storage: " + storage);
+        }
+    }
+
+    private static boolean isTmpfs(Path root) {
+        try {
+            return "tmpfs".equals(Files.getFileStore(root).type());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot access " + root, e);
+        }
+    }
+
+    /**
+     * Returns a directory with the given number of entries, creating it if
+     * needed. Files are planned by a {@link SyntheticFileTree} seeded with the
+     * number of entries, every 50th entry is an empty directory.
+     * 
+     * @param storage {@code disk} or {@code tmpfs}
+     * @param entries number of directory entries
+     * @return {@link Path} of the directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path withEntries(String storage, int entries) throws IOException {
+        Path root = storageRoot(storage);
+        Path directory = root.resolve("fxfilechooser-tree-" + entries);
+        Path marker = root.resolve("fxfilechooser-tree-" + entries + COMPLETE_MARKER);
+        if (Files.isRegularFile(marker))
+            return directory;
+
+        int directories = entries / DIRECTORY_INTERVAL;
+        SyntheticFileTree.withSeed(entries).files(entries - directories).build().createIn(directory);
+        for (int i = 0; i < directories; i++) {
+            Files.createDirectories(directory.resolve("folder-" + i));
+        }
+        Files.createFile(marker);
+        return directory;
+    }
+}
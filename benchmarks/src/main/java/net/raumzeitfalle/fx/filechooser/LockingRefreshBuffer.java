@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import javafx.collections.ObservableList;
+
+/**
+ * Copy of the lock based {@link RefreshBuffer} with its coalescing publisher,
+ * kept as baseline for {@link RefreshBufferBenchmark}. Every publication copies
+ * the collected items into a list which is replaced afterwards.
+ */
+final class LockingRefreshBuffer {
+
+    private static final long PUBLICATION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final int HIGH_WATER_MARK = 50_000;
+
+    private final List<IndexedPath> cache = new ArrayList<>(MAX_BATCH_SIZE);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Object monitor = new Object();
+
+    private final ObservableList<IndexedPath> target;
+
+    private final BooleanSupplier cancelled;
+
+    private final LongSupplier clock;
+
+    private final Executor fxThread;
+
+    private List<IndexedPath> pending = new ArrayList<>();
+
+    private boolean scheduled = false;
+
+    private long lastPublication;
+
+    LockingRefreshBuffer(BooleanSupplier cancelled, ObservableList<IndexedPath> target, LongSupplier clock,
+            Executor fxThread) {
+        this.cancelled = cancelled;
+        this.target = target;
+        this.clock = clock;
+        this.fxThread = fxThread;
+        this.lastPublication = clock.getAsLong() - PUBLICATION_INTERVAL_NANOS;
+    }
+
+    void update(IndexedPath indexedPath) {
+        cache.add(indexedPath);
+        if (!cancelled.getAsBoolean() && isPublicationDue()) {
+            flush();
+        }
+    }
+
+    private boolean isPublicationDue() {
+        if (cache.size() >= MAX_BATCH_SIZE)
+            return true;
+
+        synchronized (monitor) {
+            if (scheduled)
+                return false;
+        }
+        return clock.getAsLong() - lastPublication >= PUBLICATION_INTERVAL_NANOS;
+    }
+
+    void flush() {
+        this.lock.lock();
+        try {
+            if (cache.isEmpty())
+                return;
+            offer(cache);
+            cache.clear();
+            lastPublication = clock.getAsLong();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void offer(List<IndexedPath> items) {
+        synchronized (monitor) {
+            while (pending.size() >= HIGH_WATER_MARK && !cancelled.getAsBoolean()) {
+                try {
+                    monitor.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            pending.addAll(items);
+            if (!scheduled) {
+                scheduled = true;
+                fxThread.execute(this::publish);
+            }
+        }
+    }
+
+    private void publish() {
+        List<IndexedPath> update;
+        synchronized (monitor) {
+            update = pending;
+            pending = new ArrayList<>();
+            scheduled = false;
+            monitor.notifyAll();
+        }
+        target.addAll(update);
+    }
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Filters the file list of a {@link FileChooserModel} the way users do: typing
+ * a search text one keystroke after the other and then clearing it, or
+ * switching between file extension filters. Each operation is one complete
+ * sequence. Run with {@code -prof gc} to see the allocation per sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+public class ModelFilterBenchmark {
+
+    private static final String[] KEYSTROKES = { "r", "re", "rep", "repo", "repor", "report", "" };
+
+    private static final PathFilter[] EXTENSION_FILTERS = { PathFilter.forFileExtension("txt"),
+            PathFilter.forFileExtension("csv"), PathFilter.forFileExtension("pdf"),
+            PathFilter.acceptAllFiles("all files") };
+
+    @Param({ "100000", "1000000", "5000000" })
+    public int entries;
+
+    private FileChooserModel model;
+
+    @Setup(Level.Trial)
+    public void createModel() {
+        ObservableList<IndexedPath> paths = FXCollections.observableArrayList(SyntheticIndex.create(entries));
+        model = new FileChooserModel(paths, SyntheticIndex::noUpdates);
+    }
+
+    @Benchmark
+    public int typeAndClearSearchText() {
+        int matches = 0;
+        for (String text : KEYSTROKES) {
+            model.updateFilterCriterion(text);
+            matches += model.getFilteredPaths().size();
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int switchExtensionFilter() {
+        int matches = 0;
+        for (PathFilter filter : EXTENSION_FILTERS) {
+            model.updateFilterCriterion(filter, "");
+            matches += model.getFilteredPaths().size();
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Sorts the file list of a {@link FileChooserModel} with each of the sort
+ * orders offered by the file chooser, including the update of the filtered
+ * list shown to the user. The listing is restored to its unsorted order before
+ * each sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+public class ModelSortBenchmark {
+
+    @Param({ "100000", "1000000", "5000000" })
+    public int entries;
+
+    @Param({ "nameAscending", "nameDescending", "oldestFirst", "recentFirst" })
+    public String order;
+
+    private IndexedPath[] listing;
+
+    private ObservableList<IndexedPath> paths;
+
+    private FileChooserModel model;
+
+    private Comparator<IndexedPath> comparator;
+
+    @Setup(Level.Trial)
+    public void createModel() {
+        listing = SyntheticIndex.create(entries);
+        paths = FXCollections.observableArrayList(listing);
+        model = new FileChooserModel(paths, SyntheticIndex::noUpdates);
+        comparator = comparatorFor(order);
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreOrder() {
+        paths.setAll(listing);
+    }
+
+    @Benchmark
+    public int sort() {
+        model.sort(comparator);
+        return model.getFilteredPaths().size();
+    }
+
+    private static Comparator<IndexedPath> comparatorFor(String order) {
+        switch (order) {
+            case "nameAscending":
+                return PathComparator.byName();
+            case "nameDescending":
+                return PathComparator.byName().reversed();
+            case "oldestFirst":
+                return PathComparator.byTimestamp();
+            case "recentFirst":
+                return PathComparator.byTimestamp().reversed();
+            default:
+                throw new IllegalArgumentException("Unknown order: " + order);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sorts the listing of a directory the way the file list is sorted when the
+ * user picks a sort order. Items are created in memory with the same names as
+ * the generated directories, so no file system is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathComparatorBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int entries;
+
+    private IndexedPath[] listing;
+
+    private List<IndexedPath> toSort;
+
+    @Setup(Level.Trial)
+    public void createListing() {
+        listing = SyntheticIndex.create(entries);
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreOrder() {
+        toSort = new ArrayList<>(Arrays.asList(listing));
+    }
+
+    @Benchmark
+    public List<IndexedPath> byName() {
+        toSort.sort(PathComparator.byName());
+        return toSort;
+    }
+
+    @Benchmark
+    public List<IndexedPath> byTimestamp() {
+        toSort.sort(PathComparator.byTimestamp());
+        return toSort;
+    }
+}
@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Pushes the items of one directory scan through a buffer while a separate
+ * single thread plays the role of the JavaFX application thread. Run with
+ * {@code -prof gc} to compare the allocation per scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshBufferBenchmark {
+
+    @Param({ "10000", "100000", "500000" })
+    public int items;
+
+    private IndexedPath[] paths;
+
+    private ExecutorService fxThread;
+
+    private ObservableList<IndexedPath> target;
+
+    @Setup(Level.Trial)
+    public void createItems() {
+        paths = new IndexedPath[items];
+        for (int i = 0; i < items; i++) {
+            paths[i] = new IndexedPath(Paths.get("file" + i + ".txt"), FileTime.fromMillis(i));
+        }
+        fxThread = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "fake-fx-thread");
+            t.setDaemon(true);
+            return t;
+        });
+        target = FXCollections.observableList(new ArrayList<>(items));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTarget() throws InterruptedException {
+        awaitFxThread();
+        target.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        fxThread.shutdownNow();
+    }
+
+    @Benchmark
+    public int doubleBuffered() throws InterruptedException {
+        RefreshBuffer buffer = new RefreshBuffer(() -> false, target, new PublicationStatistics(), System::nanoTime,
+                fxThread, RefreshBuffer.determineCapacity(items));
+        for (IndexedPath path : paths) {
+            buffer.update(path);
+        }
+        buffer.flush();
+        awaitFxThread();
+        return target.size();
+    }
+
+    @Benchmark
+    public int locking() throws InterruptedException {
+        LockingRefreshBuffer buffer = new LockingRefreshBuffer(() -> false, target, System::nanoTime, fxThread);
+        for (IndexedPath path : paths) {
+            buffer.update(path);
+        }
+        buffer.flush();
+        awaitFxThread();
+        return target.size();
+    }
+
+    private void awaitFxThread() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        fxThread.execute(done::countDown);
+        done.await();
+    }
+}
@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+
+/**
+ * Listings of a directory created in memory, for benchmarks which must not
+ * depend on the file system.
+ */
+final class SyntheticIndex {
+
+    private SyntheticIndex() {
+        /* static helper, not intended for instantiation */
+    }
+
+    private static final String[] EXTENSIONS = { ".txt", ".csv", ".xml", ".docx", ".xlsx", ".pdf", ".png", "" };
+
+    static IndexedPath[] create(int entries) {
+        Random random = new Random(entries);
+        IndexedPath[] listing = new IndexedPath[entries];
+        for (int i = 0; i < entries; i++) {
+            listing[i] = new IndexedPath(Paths.get(nameOf(i, random)),
+                    FileTime.fromMillis(random.nextInt(Integer.MAX_VALUE)));
+        }
+        return listing;
+    }
+
+    private static String nameOf(int index, Random random) {
+        String prefix = (random.nextBoolean() ? "Report_" : "data-") + Integer.toString(random.nextInt(1 << 20), 36);
+        return prefix + "_" + index + EXTENSIONS[index % EXTENSIONS.length];
+    }
+
+    /**
+     * @return {@link UpdateService} which never touches the file system, the
+     *         listing is set by the benchmark.
+     */
+    static UpdateService noUpdates() {
+        return new UpdateService() {
+
+            private final ObjectProperty<Path> searchPath = new SimpleObjectProperty<>(Paths.get("."));
+
+            @Override
+            public void restartIn(Path location) {
+                searchPath.set(location);
+            }
+
+            @Override
+            public ObjectProperty<Path> searchPathProperty() {
+                return searchPath;
+            }
+
+            @Override
+            public void refresh() {
+                /* the listing is set by the benchmark */
+            }
+
+            @Override
+            public void startUpdate() {
+                /* the listing is set by the benchmark */
+            }
+
+            @Override
+            public void cancelUpdate() {
+                /* nothing is running */
+            }
+
+            @Override
+            public void dispose() {
+                /* nothing to release */
+            }
+
+            @Override
+            public ReadOnlyBooleanProperty runningProperty() {
+                return new SimpleBooleanProperty(false);
+            }
+
+            @Override
+            public ReadOnlyDoubleProperty progressProperty() {
+                return new SimpleDoubleProperty(1d);
+            }
+        };
+    }
+}
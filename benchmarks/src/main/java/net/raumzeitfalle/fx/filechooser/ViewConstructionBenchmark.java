@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.embed.swing.JFXPanel;
+import net.raumzeitfalle.fx.dirchooser.DirectoryChooserView;
+
+/**
+ * Creates the view of the file chooser and of the directory chooser once per
+ * JVM, the way the first chooser of an application is opened. The view is
+ * either loaded from FXML or created in code, see {@link ViewConstruction}.
+ * Every measurement runs in a fresh JVM, hence the result includes class
+ * loading and interpretation, not only the steady state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 20, jvmArgsAppend = { "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless",
+        "-Dprism.order=sw", "-Djava.awt.headless=true" })
+public class ViewConstructionBenchmark {
+
+    @Param({ "FXML", "PROGRAMMATIC" })
+    public ViewConstruction construction;
+
+    private FileChooserModel model;
+
+    @Setup(Level.Trial)
+    public void startToolkit() {
+        // creating a JFXPanel starts the JavaFX toolkit
+        new JFXPanel();
+        ViewConstruction.select(construction);
+        model = new FileChooserModel(FXCollections.observableArrayList(), SyntheticIndex::noUpdates);
+    }
+
+    @Benchmark
+    public Object fileChooserView() throws Exception {
+        return onFxThread(() -> new FileChooserView(update -> { /* no directory chooser */ }, () -> {
+            /* nothing to hide */ }, model, Skin.MODENA, FileChooserViewOption.STAGE));
+    }
+
+    @Benchmark
+    public Object directoryChooserView() throws Exception {
+        return onFxThread(() -> {
+            DirectoryChooserView view = new DirectoryChooserView(Skin.MODENA);
+            view.dispose();
+            return view;
+        });
+    }
+
+    private static <T> T onFxThread(Callable<T> construction) throws Exception {
+        FutureTask<T> task = new FutureTask<>(construction);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
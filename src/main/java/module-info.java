@@ -21,6 +21,7 @@
 module filechooser {
     requires java.desktop;
     requires java.logging;
+    requires static jdk.jfr;
     requires javafx.graphics;
     requires javafx.controls;
     requires javafx.swing;
@@ -34,8 +34,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,6 +55,9 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
 import javafx.scene.input.KeyCode;
+import net.raumzeitfalle.fx.filechooser.DirectoryCache;
+import net.raumzeitfalle.fx.filechooser.FileSystemProbe;
+import net.raumzeitfalle.fx.filechooser.ScanningExecutor;
 
 public class DirectoryChooserController implements Initializable {
 
@@ -74,6 +76,10 @@ public class DirectoryChooserController implements Initializable {
     @FXML
     private TextField goToTextField;
 
+    private static final int DIRECTORY_CACHE_ENTRIES = 2_000;
+
+    private static final long DIRECTORY_CACHE_BUDGET = 16L * 1024 * 1024;
+
     private ObjectProperty<Path> selectedDirectoryProperty = new SimpleObjectProperty<Path>(null);
 
     private DirectoryTreeItem root;
@@ -90,7 +96,33 @@ public class DirectoryChooserController implements Initializable {
 
     private Map<Path, Task<Void>> runningUpdateTasks = new ConcurrentHashMap<>();
 
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Executor executor = ScanningExecutor.directoryTrees();
+
+    private Thread shutdownThread = null;
+
+    /*
+     * Sub directories of recently read directories, so that revisiting a
+     * directory does not read it again as long as it has not been modified.
+     */
+    private final DirectoryCache<List<Path>> directoryCache = new DirectoryCache<>(DIRECTORY_CACHE_ENTRIES,
+            DIRECTORY_CACHE_BUDGET, DirectoryWalker::estimateSize);
+
+    private DirectoryTreePreloader preloader = new DirectoryTreePreloader(1, directoryCache);
+
+    /**
+     * Initializes this controller with the nodes of a programmatically created
+     * view instead of nodes injected by FXMLLoader.
+     * 
+     * @param view {@link DirectoryChooserViewBuilder} which has built the view.
+     */
+    void initialize(DirectoryChooserViewBuilder view) {
+        this.selectedDirectory = view.selectedDirectory;
+        this.directoryTree = view.directoryTree;
+        this.okButton = view.okButton;
+        this.cancelButton = view.cancelButton;
+        this.goToTextField = view.goToTextField;
+        initialize(null, null);
+    }
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -105,6 +137,7 @@ public class DirectoryChooserController implements Initializable {
 
         root.getChildren().add(localRoot);
 
+        directoryTree.setCellFactory(tree -> new DirectoryTreeCell());
         directoryTree.setRoot(root);
         directoryTree.showRootProperty().set(false);
 
@@ -186,6 +219,7 @@ public class DirectoryChooserController implements Initializable {
                     selectedDirectoryProperty.set(Paths.get(item.getFullPath()));
 
                 readSubDirsForSelectedItem();
+                preloader.preload(item);
             }
         });
 
@@ -213,15 +247,34 @@ public class DirectoryChooserController implements Initializable {
 
     private void startUpdate(Path path, Task<Void> update) {
         runningUpdateTasks.put(path, update);
-        executor.submit(update);
+        executor.execute(update);
     }
 
     private Task<Void> createUpdateTask(Path path, DirectoryTreeItem item) {
-        /*
-         * TODO: Progress can be determined as per file system entry, so that
-         * indeterminate state is not needed for update icon.
-         */
-        return new DirectoryTreeUpdateTask(path, item, runningUpdateTasks::remove);
+        return new DirectoryTreeUpdateTask(path, item, finished -> {
+            runningUpdateTasks.remove(finished);
+            Platform.runLater(() -> preloadIfSelected(item));
+        }, directoryCache);
+    }
+
+    private void preloadIfSelected(DirectoryTreeItem item) {
+        if (item == this.directoryTree.getSelectionModel().getSelectedItem()) {
+            preloader.preload(item);
+        }
+    }
+
+    /**
+     * Defines how many levels below the children of the selected directory are
+     * read in background, so that expanding a child does not wait for the file
+     * system. By default one level is preloaded.
+     * 
+     * @param levels Number of levels to preload, 0 disables preloading, at most
+     *               2 levels are supported.
+     */
+    public void setPreloadLevels(int levels) {
+        DirectoryTreePreloader replacement = new DirectoryTreePreloader(levels, directoryCache);
+        preloader.cancel();
+        preloader = replacement;
     }
 
     private void expandItem(TreeItem<?> item) {
@@ -256,7 +309,7 @@ public class DirectoryChooserController implements Initializable {
                 return null;
             }
         };
-        executor.submit(init);
+        executor.execute(init);
     }
 
     private String getHostName() {
@@ -290,24 +343,55 @@ public class DirectoryChooserController implements Initializable {
         this.onCancel = action;
     }
 
+    /**
+     * Cancels all running directory tree updates and deregisters the shutdown
+     * hook of this controller. The controller must not be used afterwards.
+     */
+    public void dispose() {
+        deregisterShutdownHook();
+        shutdown();
+        directoryCache.clear();
+    }
+
     private void shutdown() {
         Logger.getLogger(DirectoryChooserController.class.getName()).log(Level.INFO,
-                "shutting down tasks and executors");
-        executor.shutdown();
+                "shutting down running tasks");
+        runningUpdateTasks.values().forEach(Task::cancel);
+        runningUpdateTasks.clear();
+        preloader.cancel();
     }
 
     private void registerShutdownHook() {
-        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+        shutdownThread = new Thread(this::shutdown);
+        Runtime.getRuntime().addShutdownHook(shutdownThread);
     }
 
-    private void handleGotoAction(ActionEvent event) {
-        File possibleLocation = getPathFromText();
-        if (possibleLocation.exists()) {
-            Path location = possibleLocation.toPath();
-            DirectoryTreeItem share = new DirectoryTreeItem(location);
-            share.setGraphic(DirectoryIcons.HOST.get(iconSize));
-            updateSharesIfNeeded(share);
+    private void deregisterShutdownHook() {
+        if (null == shutdownThread)
+            return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownThread);
+        } catch (IllegalStateException shutdownInProgress) {
+            // the hook is already running, nothing to deregister anymore
         }
+        shutdownThread = null;
+    }
+
+    /*
+     * The location may be on an unavailable network share, hence it is checked
+     * in background and the tree is updated once the answer is known.
+     */
+    private void handleGotoAction(ActionEvent event) {
+        Path location = getPathFromText().toPath();
+        FileSystemProbe.shared().isDirectory(location).thenAccept(isDirectory -> {
+            if (isDirectory.booleanValue()) {
+                Platform.runLater(() -> {
+                    DirectoryTreeItem share = new DirectoryTreeItem(location, true, directoryCache);
+                    share.setGraphic(DirectoryIcons.HOST.get(iconSize));
+                    updateSharesIfNeeded(share);
+                });
+            }
+        });
     }
 
     /*
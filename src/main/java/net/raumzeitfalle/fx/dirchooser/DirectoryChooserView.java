@@ -28,6 +28,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.layout.AnchorPane;
 import net.raumzeitfalle.fx.filechooser.Skin;
+import net.raumzeitfalle.fx.filechooser.ViewConstruction;
 
 public class DirectoryChooserView extends AnchorPane {
 
@@ -35,14 +36,9 @@ public class DirectoryChooserView extends AnchorPane {
 
     public DirectoryChooserView(Skin skin) throws IOException {
 
-        Class<?> thisClass = getClass();
-        String fileName = thisClass.getSimpleName() + ".fxml";
-        URL resource = thisClass.getResource(fileName);
-        FXMLLoader loader = new FXMLLoader(resource);
-
         controller = new DirectoryChooserController();
-        loader.setController(controller);
-        Parent view = loader.load();
+        Parent view = ViewConstruction.PROGRAMMATIC.equals(ViewConstruction.selected()) ? build(controller)
+                : load(controller);
         this.getChildren().add(view);
 
         AnchorPane.setLeftAnchor(view, 0.0);
@@ -54,6 +50,22 @@ public class DirectoryChooserView extends AnchorPane {
 
     }
 
+    private Parent load(DirectoryChooserController controller) throws IOException {
+        Class<?> thisClass = getClass();
+        String fileName = thisClass.getSimpleName() + ".fxml";
+        URL resource = thisClass.getResource(fileName);
+        FXMLLoader loader = new FXMLLoader(resource);
+        loader.setController(controller);
+        return loader.load();
+    }
+
+    private static Parent build(DirectoryChooserController controller) {
+        DirectoryChooserViewBuilder builder = new DirectoryChooserViewBuilder();
+        Parent view = builder.build();
+        controller.initialize(builder);
+        return view;
+    }
+
     public ReadOnlyObjectProperty<Path> selectedDirectoryProperty() {
         return controller.selectedDirectoryProperty();
     }
@@ -67,4 +79,12 @@ public class DirectoryChooserView extends AnchorPane {
 
     }
 
+    /**
+     * Cancels all running directory tree updates. The view must not be used
+     * afterwards.
+     */
+    public void dispose() {
+        controller.dispose();
+    }
+
 }
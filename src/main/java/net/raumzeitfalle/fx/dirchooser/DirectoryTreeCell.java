@@ -0,0 +1,47 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import javafx.scene.control.TreeCell;
+import javafx.scene.control.TreeItem;
+
+/*
+ * Shows name and icon of a directory. Cells only exist for visible rows, hence
+ * a directory is probed for sub directories once its cell shows it.
+ */
+class DirectoryTreeCell extends TreeCell<String> {
+
+    @Override
+    protected void updateItem(String item, boolean empty) {
+        super.updateItem(item, empty);
+        graphicProperty().unbind();
+        TreeItem<String> treeItem = getTreeItem();
+        if (empty || null == item || null == treeItem) {
+            setText(null);
+            setGraphic(null);
+            return;
+        }
+        setText(item);
+        graphicProperty().bind(treeItem.graphicProperty());
+        if (treeItem instanceof DirectoryTreeItem) {
+            ((DirectoryTreeItem) treeItem).shown();
+        }
+    }
+}
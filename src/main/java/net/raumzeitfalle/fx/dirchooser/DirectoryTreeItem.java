@@ -21,15 +21,24 @@ package net.raumzeitfalle.fx.dirchooser;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javafx.application.Platform;
 import javafx.event.Event;
+import javafx.scene.Node;
 import javafx.scene.control.TreeItem;
+import net.raumzeitfalle.fx.filechooser.DirectoryCache;
+import net.raumzeitfalle.fx.filechooser.FileSystemProbe;
 
 /*
  * TODO: if an item has been updated is currently checked using getChildren, 
@@ -42,6 +51,17 @@ import javafx.scene.control.TreeItem;
  */
 public class DirectoryTreeItem extends TreeItem<String> {
 
+    /*
+     * Probes only decide between two icons. They run on their own low priority
+     * worker, so that they never delay file or directory scans. When more items
+     * are shown than probes can be queued, the oldest probes are dropped as
+     * these items most likely have been scrolled out of view. They are probed
+     * again once they are shown again.
+     */
+    private static final int PROBE_QUEUE_CAPACITY = 1000;
+
+    private static final ThreadPoolExecutor PROBES = createProbeExecutor();
+
     private String fullPath;
 
     public String getFullPath() {
@@ -52,50 +72,181 @@ public class DirectoryTreeItem extends TreeItem<String> {
 
     private double iconSize = 32.0;
 
+    /*
+     * Result of the sub directory probe, null as long as the probe did not
+     * complete.
+     */
+    private volatile Boolean hasSubDirectories;
+
+    private final DirectoryCache<List<Path>> cache;
+
+    private Probe probe;
+
     public boolean isDirectory() {
         return (this.isDirectory);
     }
 
     public DirectoryTreeItem(String root) {
         super(root);
+        this.cache = DirectoryCache.disabled();
     }
 
+    /**
+     * Creates an item without accessing the file system. The path is expected
+     * to be a directory, this is verified in background once the item is shown.
+     * 
+     * @param file {@link Path} of the directory
+     */
     public DirectoryTreeItem(Path file) {
+        this(file, true);
+    }
+
+    /*
+     * Creates an item for a path which is already known to be a directory or not,
+     * so that the file system is not queried again.
+     */
+    DirectoryTreeItem(Path file, boolean isDirectory) {
+        this(file, isDirectory, DirectoryCache.disabled());
+    }
+
+    /*
+     * Sub directory listings found in the cache spare the probe.
+     */
+    DirectoryTreeItem(Path file, boolean isDirectory, DirectoryCache<List<Path>> cache) {
         super(file.toString());
+        this.cache = cache;
         this.fullPath = file.toString();
-        this.isDirectory = file.toFile().isDirectory();
+        this.isDirectory = isDirectory;
+        this.setGraphic(DirectoryIcons.CLOSED.get(iconSize));
+        this.setValue(nameOf(file));
+
+        this.addEventHandler(TreeItem.branchExpandedEvent(), this::handleExpansion);
+        this.addEventHandler(TreeItem.branchCollapsedEvent(), this::handleCollapse);
+
+        this.parentProperty().addListener((obs, previous, parent) -> {
+            if (null == parent) {
+                detached();
+            }
+        });
+    }
 
-        Path path = Paths.get(this.fullPath);
+    private static ThreadPoolExecutor createProbeExecutor() {
+        AtomicInteger counter = new AtomicInteger(0);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(PROBE_QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "fxfilechooser-subdir-probe-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, DirectoryTreeItem::discardOldest);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 
-        long subDirs = countSubDirs(path);
-        if (subDirs > 0) {
-            this.setGraphic(DirectoryIcons.CLOSED_PLUS.get(iconSize));
-        } else {
-            this.setGraphic(DirectoryIcons.CLOSED.get(iconSize));
+    private static void discardOldest(Runnable rejected, ThreadPoolExecutor pool) {
+        if (pool.isShutdown())
+            return;
+        Runnable oldest = pool.getQueue().poll();
+        if (oldest instanceof Probe) {
+            ((Probe) oldest).discarded();
         }
+        pool.execute(rejected);
+    }
 
-        if (!fullPath.endsWith(File.separator)) {
-            String value = file.toString();
-            int indexOf = value.lastIndexOf(File.separator);
-            if (indexOf > -1) {
-                this.setValue(value.substring(indexOf + 1));
-            } else {
-                this.setValue(value);
+    static String nameOf(Path file) {
+        String value = file.toString();
+        if (value.endsWith(File.separator))
+            return value;
+
+        int indexOf = value.lastIndexOf(File.separator);
+        if (indexOf > -1)
+            return value.substring(indexOf + 1);
+
+        return value;
+    }
+
+    /*
+     * Called by the tree cell showing this item, hence only items visible in
+     * the tree are probed. Items whose children are already known need no probe
+     * at all.
+     */
+    synchronized void shown() {
+        if (!isDirectory || null == fullPath || null != hasSubDirectories || null != probe)
+            return;
+        if (!getChildren().isEmpty()) {
+            hasSubDirectories = Boolean.TRUE;
+            return;
+        }
+        probe = new Probe(Paths.get(fullPath));
+        PROBES.execute(probe);
+    }
+
+    /*
+     * A pending probe is cancelled as soon as its item is removed from the tree.
+     */
+    private synchronized void detached() {
+        if (null != probe) {
+            probe.cancel();
+            probe = null;
+        }
+    }
+
+    private synchronized void discarded(Probe discarded) {
+        if (probe == discarded) {
+            probe = null;
+        }
+    }
+
+    /*
+     * The check runs with the timeout of the FileSystemProbe, so that a dead
+     * share does not stall the probes of all other items.
+     */
+    private void probeSubDirectories(Path directory) {
+        FileSystemProbe fileSystem = FileSystemProbe.shared();
+        CompletableFuture<Boolean> check = fileSystem.evaluate(directory, () -> {
+            Optional<List<Path>> cached = cache.get(directory);
+            return cached.isPresent() ? !cached.get().isEmpty() : hasAnySubDirectory(directory);
+        });
+        boolean found = fileSystem.await(check, false);
+        Platform.runLater(() -> {
+            hasSubDirectories = found;
+            if (found) {
+                updateClosedIcon();
             }
+        });
+    }
+
+    static boolean hasAnySubDirectory(Path directory) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry))
+                    return true;
+            }
+        } catch (IOException | SecurityException e) {
+            return false;
         }
+        return false;
+    }
 
-        this.addEventHandler(TreeItem.branchExpandedEvent(), this::handleExpansion);
-        this.addEventHandler(TreeItem.branchCollapsedEvent(), this::handleCollapse);
+    /**
+     * @return true when the directory has at least one sub directory, false if
+     *         not or as long as this is not yet known.
+     */
+    public boolean hasSubDirectories() {
+        return Boolean.TRUE.equals(hasSubDirectories);
+    }
 
+    private void updateClosedIcon() {
+        if (!isExpanded()) {
+            this.setGraphic(closedIcon());
+        }
     }
 
-    private long countSubDirs(Path path) {
-        try (Stream<Path> paths = Files.list(path)) {
-            List<Path> subDirs = paths.filter(p -> p.toFile().isDirectory()).collect(Collectors.toList());
-            return subDirs.size();
-        } catch (IOException e) {
-            return 0;
+    private Node closedIcon() {
+        if (hasSubDirectories()) {
+            return DirectoryIcons.CLOSED_PLUS.get(iconSize);
         }
+        return DirectoryIcons.CLOSED.get(iconSize);
     }
 
     private void handleExpansion(Event e) {
@@ -109,11 +260,37 @@ public class DirectoryTreeItem extends TreeItem<String> {
         DirectoryTreeItem item = (DirectoryTreeItem) e.getSource();
         if (null != item) {
             if (item.getChildren().isEmpty()) {
-                this.setGraphic(DirectoryIcons.CLOSED.get(iconSize));
+                this.setGraphic(closedIcon());
             } else {
                 this.setGraphic(DirectoryIcons.OPEN.get(iconSize));
             }
         }
     }
 
+    private final class Probe implements Runnable {
+
+        private final Path directory;
+
+        private volatile boolean cancelled = false;
+
+        private Probe(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                probeSubDirectories(directory);
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            PROBES.remove(this);
+        }
+
+        private void discarded() {
+            DirectoryTreeItem.this.discarded(this);
+        }
+    }
 }
@@ -0,0 +1,252 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.application.Platform;
+import javafx.scene.control.TreeItem;
+import net.raumzeitfalle.fx.filechooser.DirectoryCache;
+
+/**
+ * Reads the next levels below the directory the user is looking at, so that
+ * expanding one of its children does not require to wait for the file system.
+ * 
+ * Each directory is read by its own fork/join task, hence siblings are read in
+ * parallel. The number of concurrent directory reads is limited for all
+ * preloaders together. When the user navigates to another branch, preloads
+ * which are neither above nor below the new branch are abandoned so that the
+ * directory reads become available for the branch in focus.
+ */
+class DirectoryTreePreloader {
+
+    static final int MAX_LEVELS = 2;
+
+    static final int MAX_CONCURRENT_READS = 4;
+
+    private static final Semaphore READ_PERMITS = new Semaphore(MAX_CONCURRENT_READS, true);
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()),
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+
+    private final Map<Path, AtomicBoolean> preloads = new ConcurrentHashMap<>();
+
+    private final int levels;
+
+    private final DirectoryCache<List<Path>> cache;
+
+    DirectoryTreePreloader(int levels) {
+        this(levels, DirectoryCache.disabled());
+    }
+
+    DirectoryTreePreloader(int levels, DirectoryCache<List<Path>> cache) {
+        if (levels < 0 || levels > MAX_LEVELS)
+            throw new IllegalArgumentException("levels must be between 0 and " + MAX_LEVELS + " but was " + levels);
+        this.levels = levels;
+        this.cache = cache;
+    }
+
+    /**
+     * Starts reading the levels below the children of the given item. Must be
+     * called on the JavaFX application thread.
+     * 
+     * @param item {@link DirectoryTreeItem} which is in focus.
+     */
+    void preload(DirectoryTreeItem item) {
+        if (levels == 0 || null == item.getFullPath())
+            return;
+
+        Path focus = Paths.get(item.getFullPath());
+        abandonAllExcept(focus);
+
+        List<DirectoryTreeItem> children = directoriesToRead(item);
+        if (children.isEmpty() || preloads.containsKey(focus))
+            return;
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        preloads.put(focus, cancelled);
+        POOL.execute(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                try {
+                    invokeAll(tasksFor(children, levels, cancelled, cache));
+                } finally {
+                    preloads.remove(focus, cancelled);
+                }
+            }
+        });
+    }
+
+    private void abandonAllExcept(Path focus) {
+        preloads.forEach((path, cancelled) -> {
+            if (!focus.startsWith(path) && !path.startsWith(focus)) {
+                cancelled.set(true);
+                preloads.remove(path, cancelled);
+            }
+        });
+    }
+
+    /**
+     * Abandons all running preloads.
+     */
+    void cancel() {
+        preloads.values().forEach(cancelled -> cancelled.set(true));
+        preloads.clear();
+    }
+
+    int getRunningPreloads() {
+        return preloads.size();
+    }
+
+    private static List<DirectoryTreeItem> directoriesToRead(DirectoryTreeItem item) {
+        List<DirectoryTreeItem> directories = new ArrayList<>(item.getChildren().size());
+        for (TreeItem<String> child : item.getChildren()) {
+            DirectoryTreeItem directory = (DirectoryTreeItem) child;
+            if (null != directory.getFullPath() && directory.getChildren().isEmpty()) {
+                directories.add(directory);
+            }
+        }
+        return directories;
+    }
+
+    private static List<ReadDirectory> tasksFor(List<DirectoryTreeItem> items, int levels,
+            AtomicBoolean cancelled, DirectoryCache<List<Path>> cache) {
+        List<ReadDirectory> tasks = new ArrayList<>(items.size());
+        for (DirectoryTreeItem item : items) {
+            tasks.add(new ReadDirectory(item, levels, cancelled, cache));
+        }
+        return tasks;
+    }
+
+    /*
+     * The tree items passed to this task are either empty when the preload
+     * starts or have just been created by the parent task, hence their children
+     * are only accessed on the FX thread.
+     */
+    private static final class ReadDirectory extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient DirectoryTreeItem item;
+
+        private final int levels;
+
+        private final transient AtomicBoolean cancelled;
+
+        private final transient DirectoryCache<List<Path>> cache;
+
+        private ReadDirectory(DirectoryTreeItem item, int levels, AtomicBoolean cancelled,
+                DirectoryCache<List<Path>> cache) {
+            this.item = item;
+            this.levels = levels;
+            this.cancelled = cancelled;
+            this.cache = cache;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.get())
+                return;
+
+            List<Path> subDirectories = read();
+            if (cancelled.get() || subDirectories.isEmpty())
+                return;
+
+            List<DirectoryTreeItem> children = new ArrayList<>(subDirectories.size());
+            for (Path subDirectory : subDirectories) {
+                children.add(new DirectoryTreeItem(subDirectory, true, cache));
+            }
+            Platform.runLater(() -> {
+                if (!cancelled.get() && item.getChildren().isEmpty()) {
+                    item.getChildren().setAll(children);
+                }
+            });
+
+            if (levels > 1) {
+                invokeAll(tasksFor(children, levels - 1, cancelled, cache));
+            }
+        }
+
+        /*
+         * Permits are granted in order, so that a preload which was abandoned while
+         * waiting must not read its directory ahead of the branch in focus.
+         */
+        private List<Path> read() {
+            Path directory = Paths.get(item.getFullPath());
+            try {
+                ForkJoinPool.managedBlock(new ReadPermit());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new ArrayList<>();
+            }
+            try {
+                if (cancelled.get())
+                    return new ArrayList<>();
+                return new DirectoryWalker(directory, 0, cache).sortedSubDirectories(cancelled::get);
+            } catch (RuntimeException e) {
+                Logger.getLogger(DirectoryTreePreloader.class.getName())
+                      .log(Level.FINE, "failed to preload " + directory, e);
+                return new ArrayList<>();
+            } finally {
+                READ_PERMITS.release();
+            }
+        }
+    }
+
+    /*
+     * Waiting for a read permit blocks a fork/join worker, hence the pool is
+     * allowed to compensate the blocked worker.
+     */
+    private static final class ReadPermit implements ForkJoinPool.ManagedBlocker {
+
+        private boolean acquired = false;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                READ_PERMITS.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!acquired) {
+                acquired = READ_PERMITS.tryAcquire();
+            }
+            return acquired;
+        }
+    }
+}
@@ -20,70 +20,168 @@
 package net.raumzeitfalle.fx.dirchooser;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javafx.application.Platform;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
 import javafx.concurrent.Task;
 import javafx.scene.Node;
-import javafx.scene.control.TreeItem;
+import net.raumzeitfalle.fx.filechooser.DirectoryCache;
+import net.raumzeitfalle.fx.filechooser.PerformanceEvents;
+import net.raumzeitfalle.fx.filechooser.RecordedPhase;
 
 class DirectoryTreeUpdateTask extends Task<Void> {
 
+    /**
+     * Number of sub directories added to the tree with one update.
+     */
+    static final int CHUNK_SIZE = 500;
+
     private final Path path;
     private final DirectoryTreeItem item;
-    private final BooleanProperty cancelled;
+    private final AtomicBoolean cancelled;
     private final Consumer<Path> removable;
     private final Node itemGraphic;
+    private final DirectoryCache<List<Path>> cache;
+    private final ExpansionProgress progress = new ExpansionProgress(System::nanoTime);
+    private boolean childrenApplied = false;
+    private ProgressIcon progressIcon;
     
     DirectoryTreeUpdateTask(Path path, DirectoryTreeItem item, Consumer<Path> finalizeAction) {
+        this(path, item, finalizeAction, DirectoryCache.disabled());
+    }
+
+    DirectoryTreeUpdateTask(Path path, DirectoryTreeItem item, Consumer<Path> finalizeAction,
+            DirectoryCache<List<Path>> cache) {
         this.path = path;
         this.item = item;
-        this.cancelled = new SimpleBooleanProperty(false);
+        this.cancelled = new AtomicBoolean(false);
         this.removable = finalizeAction;
         this.itemGraphic = item.getGraphic();
+        this.cache = cache;
     }
 
+    /*
+     * All file system access and the creation of tree items happens here on the
+     * worker thread, the tree itself is only modified on the FX thread. Small
+     * directories are applied with a single update, larger directories are
+     * applied in chunks so that the first sub directories appear early.
+     */
     @Override
     protected Void call() throws Exception {
-        DirectoryWalker walker = new DirectoryWalker(path);
-        List<TreeItem<String>> items = walker.read(cancelled).getChildren();
-        item.getChildren().clear();
-        item.getChildren().addAll(items);
+        RecordedPhase expansion = PerformanceEvents.treeExpansion(path);
+        int created = 0;
+        try {
+            created = expand();
+        } finally {
+            expansion.end(created);
+        }
         return null;
     }
 
+    /*
+     * Returns the number of tree items created.
+     */
+    private int expand() {
+        DirectoryWalker walker = new DirectoryWalker(path, 0, cache);
+        List<Path> subDirectories = walker.sortedSubDirectories(cancelled::get, progress::listed);
+        int total = subDirectories.size();
+        int created = 0;
+        progress.created(0, total);
+        updateProgress(0, total);
+        if (total == 0 && !isStopped()) {
+            // all sub directories may have been deleted since the last update
+            Platform.runLater(() -> apply(Collections.emptyList(), true));
+        }
+        for (int start = 0; start < total && !isStopped(); start += CHUNK_SIZE) {
+            int end = Math.min(total, start + CHUNK_SIZE);
+            List<DirectoryTreeItem> chunk = new ArrayList<>(end - start);
+            for (Path subDirectory : subDirectories.subList(start, end)) {
+                if (isStopped())
+                    break;
+                chunk.add(walker.readChild(subDirectory, cancelled::get));
+            }
+            boolean isFirstChunk = start == 0;
+            Platform.runLater(() -> apply(chunk, isFirstChunk));
+            created += chunk.size();
+            progress.created(end, total);
+            updateProgress(end, total);
+        }
+        return created;
+    }
+
+    private boolean isStopped() {
+        return cancelled.get() || isCancelled();
+    }
+
+    private void apply(List<DirectoryTreeItem> chunk, boolean isFirstChunk) {
+        if (isCancelled())
+            return;
+        if (isFirstChunk) {
+            item.getChildren().setAll(chunk);
+        } else {
+            item.getChildren().addAll(chunk);
+        }
+        childrenApplied = true;
+    }
+
     @Override
     protected void running() {
         super.running();
-        ProgressIcon progressIcon = new ProgressIcon(32, evt->cancel(true));
-        Platform.runLater(()->item.setGraphic(progressIcon));
+        progressIcon = new ProgressIcon(32, evt->cancel(true));
+        progressIcon.track(this, progress::describe);
+        item.setGraphic(progressIcon);
+    }
+
+    private void stopProgressIcon() {
+        if (null != progressIcon) {
+            progressIcon.stop();
+        }
+    }
+
+    /**
+     * @return {@link ExpansionProgress} of this update.
+     */
+    ExpansionProgress getExpansionProgress() {
+        return progress;
     }
 
     @Override
     protected void cancelled() {
         Logger.getLogger(DirectoryTreeUpdateTask.class.getName()).log(Level.INFO, "contents discovery in {0}", path);
         super.cancelled();
-        cancelled.setValue(true);
+        cancelled.set(true);
         removable.accept(path);
-        Platform.runLater(()->item.setGraphic(itemGraphic));
+        Platform.runLater(()->{
+            stopProgressIcon();
+            item.setGraphic(itemGraphic);
+            if (childrenApplied) {
+                // an incomplete list of sub directories would never be completed
+                item.getChildren().clear();
+            }
+        });
     }
 
     @Override
     protected void failed() {
         super.failed();
         removable.accept(path);
-        Platform.runLater(()->item.setGraphic(itemGraphic));
+        Platform.runLater(()->{
+            stopProgressIcon();
+            item.setGraphic(itemGraphic);
+        });
     }
     
     @Override
     protected void succeeded() {
         super.succeeded();
         Platform.runLater(()->{
+            stopProgressIcon();
             item.setGraphic(itemGraphic);
             if (!item.getChildren().isEmpty()) {
                 item.setGraphic(DirectoryIcons.OPEN.get(32));
@@ -21,14 +21,20 @@ package net.raumzeitfalle.fx.dirchooser;
 
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
-import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javafx.beans.property.ReadOnlyBooleanProperty;
-import javafx.collections.FXCollections;
+import net.raumzeitfalle.fx.filechooser.DirectoryCache;
 
 class DirectoryWalker {
 
@@ -40,62 +46,171 @@ class DirectoryWalker {
 
     private DirectoryTreeItem rootNode;
 
-    private static Filter<Path> pathFilter = getPathFilter();
+    private final boolean isKnownDirectory;
+
+    private final DirectoryCache<List<Path>> cache;
 
     public DirectoryWalker(Path start) {
         this(start, 0);
     }
 
     public DirectoryWalker(Path start, int maxDepth) {
+        this(start, maxDepth, DirectoryCache.disabled());
+    }
+
+    DirectoryWalker(Path start, int maxDepth, DirectoryCache<List<Path>> cache) {
         this.current = start;
         this.maxDepth = maxDepth;
         this.currentDepth = 0;
-        this.rootNode = new DirectoryTreeItem(start);
+        this.isKnownDirectory = false;
+        this.cache = cache;
     }
 
     private DirectoryWalker(DirectoryWalker walker, Path subDir) {
         this.current = walker.current.resolve(subDir);
         this.maxDepth = walker.maxDepth;
         this.currentDepth = walker.currentDepth + 1;
-        this.rootNode = new DirectoryTreeItem(current);
+        this.isKnownDirectory = true;
+        this.cache = walker.cache;
+    }
+
+    /*
+     * The tree item is only created when a tree is read, listing the sub
+     * directories alone neither queries nor probes the walked directory.
+     */
+    DirectoryTreeItem read(BooleanSupplier cancelled) {
+        if (null == rootNode) {
+            rootNode = isKnownDirectory ? new DirectoryTreeItem(current, true, cache) : new DirectoryTreeItem(current);
+        }
+        if (currentDepth > maxDepth)
+            return this.rootNode;
+
+        List<Path> subDirectories = sortedSubDirectories(cancelled);
+        List<DirectoryTreeItem> children = new ArrayList<>(subDirectories.size());
+        for (Path path : subDirectories) {
+            if (cancelled.getAsBoolean())
+                break;
+            children.add(readChild(path, cancelled));
+        }
+        /*
+         * TODO: Make the directory tree sortable 
+         * TODO: Make the directory tree filterable
+         */
+        if (!children.isEmpty()) {
+            rootNode.getChildren().addAll(children);
+        }
+        return this.rootNode;
+    }
+
+    /**
+     * Creates the tree item for a sub directory of the directory being walked,
+     * including its children as far as the maximum depth permits.
+     * 
+     * @param subDirectory {@link Path} of the sub directory.
+     * @param cancelled    Signals that the walk shall stop.
+     * @return {@link DirectoryTreeItem}
+     */
+    DirectoryTreeItem readChild(Path subDirectory, BooleanSupplier cancelled) {
+        return new DirectoryWalker(this, subDirectory).read(cancelled);
+    }
+
+    /**
+     * Lists the sub directories of the directory being walked, sorted by name
+     * ignoring case. Listings are served from the cache as long as the directory
+     * has not been modified.
+     * 
+     * @param cancelled Signals that listing shall stop.
+     * @return sorted {@link List} of sub directories.
+     */
+    List<Path> sortedSubDirectories(BooleanSupplier cancelled) {
+        return sortedSubDirectories(cancelled, entries -> { /* not observed */ });
+    }
+
+    /**
+     * Lists the sub directories of the directory being walked, sorted by name
+     * ignoring case, and reports the number of directory entries visited while
+     * listing. Files are counted as well, so that a directory with many files
+     * and only a few sub directories still shows progress.
+     * 
+     * @param cancelled Signals that listing shall stop.
+     * @param listed    Receives the number of directory entries visited so far.
+     * @return sorted {@link List} of sub directories.
+     */
+    List<Path> sortedSubDirectories(BooleanSupplier cancelled, LongConsumer listed) {
+        return cache.get(current).orElseGet(() -> listSubDirectories(cancelled, listed));
     }
 
-    DirectoryTreeItem read(ReadOnlyBooleanProperty cancelled) {
-        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(current, pathFilter)) {
-            for (Path path : dirs) {
-                if (cancelled.getValue())
-                    break;
-                addNode(path, cancelled);
+    private List<Path> listSubDirectories(BooleanSupplier cancelled, LongConsumer listed) {
+        Optional<FileTime> lastModified = DirectoryCache.lastModified(current);
+        List<SortableNode> subDirectories = new ArrayList<>();
+        long visited = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(current)) {
+            for (Path path : entries) {
+                if (cancelled.getAsBoolean())
+                    return sort(subDirectories);
+                if (isDirectory(path)) {
+                    subDirectories.add(new SortableNode(path));
+                }
+                listed.accept(++visited);
             }
         } catch (IOException e) {
             Logger.getLogger(DirectoryWalker.class.getName())
-                  .log(Level.WARNING, "error rading directory content", e);
+                  .log(Level.WARNING, "error reading directory content", e);
+            return sort(subDirectories);
         }
-        return this.rootNode;
+        List<Path> complete = Collections.unmodifiableList(sort(subDirectories));
+        lastModified.ifPresent(time -> cache.put(current, time, complete));
+        return complete;
+    }
+
+    /*
+     * Rough estimate of the heap occupied by a list of sub directories, used as
+     * weight for the directory cache.
+     */
+    static long estimateSize(List<Path> subDirectories) {
+        long size = 64;
+        for (Path path : subDirectories) {
+            size += 96 + 2L * path.toString().length();
+        }
+        return size;
     }
 
-    private void addNode(Path path, ReadOnlyBooleanProperty cancelled) {
-        if (currentDepth <= maxDepth) {
-            if (cancelled.get())
-                return;
-
-            DirectoryTreeItem leaf = new DirectoryWalker(this, path).read(cancelled);
-            rootNode.getChildren().add(leaf);
-            /*
-             * TODO: Make the directory tree sortable 
-             * TODO: Make the directory tree filterable
-             * 
-             */
-            if (cancelled.get())
-                return;
-
-            FXCollections.sort(rootNode.getChildren(), 
-                              (a, b) -> a.getValue().compareToIgnoreCase(b.getValue()));
+    /*
+     * Each level is sorted once before it is added to the tree, so that the tree
+     * receives a single change event per level.
+     */
+    private static List<Path> sort(List<SortableNode> nodes) {
+        nodes.sort(Comparator.comparing(node -> node.key));
+        List<Path> sorted = new ArrayList<>(nodes.size());
+        for (SortableNode node : nodes) {
+            sorted.add(node.path);
         }
+        return sorted;
     }
 
-    private static Filter<Path> getPathFilter() {
-        return DirectoryWalker::isDirectory;
+    /*
+     * Folding each character the same way as String.compareToIgnoreCase allows
+     * to compute the key once per node instead of once per comparison while
+     * keeping the order of the former comparator.
+     */
+    static String foldCase(String value) {
+        char[] folded = new char[value.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return new String(folded);
+    }
+
+    private static final class SortableNode {
+
+        private final String key;
+
+        private final Path path;
+
+        private SortableNode(Path path) {
+            this.key = foldCase(DirectoryTreeItem.nameOf(path));
+            this.path = path;
+        }
     }
 
     private static boolean isDirectory(Path path) {
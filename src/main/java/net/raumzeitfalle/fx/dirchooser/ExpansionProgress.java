@@ -0,0 +1,139 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Progress of a directory expansion. An expansion first lists the directory,
+ * the number of entries is unknown during this phase. Afterwards the tree items
+ * for all entries are created, now the total is known.
+ * <p>
+ * Throughput is measured per phase. The time since the last progress allows to
+ * tell a slow directory (e.g. on a network share) from a hanging one.
+ */
+final class ExpansionProgress {
+
+    /**
+     * After this time without any progress, the expansion is reported as
+     * stalled.
+     */
+    static final long STALL_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    private final LongSupplier clock;
+
+    private long phaseStart;
+
+    private long lastProgress;
+
+    private long processed = 0;
+
+    private long total = -1;
+
+    ExpansionProgress(LongSupplier clock) {
+        this.clock = clock;
+        this.phaseStart = clock.getAsLong();
+        this.lastProgress = phaseStart;
+    }
+
+    /**
+     * @param entries Number of directory entries listed so far.
+     */
+    synchronized void listed(long entries) {
+        this.processed = entries;
+        this.lastProgress = clock.getAsLong();
+    }
+
+    /**
+     * @param entries Number of tree items created so far.
+     * @param all     Total number of tree items to create.
+     */
+    synchronized void created(long entries, long all) {
+        long now = clock.getAsLong();
+        if (total < 0) {
+            phaseStart = now;
+            processed = 0;
+        }
+        this.total = all;
+        this.processed = entries;
+        this.lastProgress = now;
+    }
+
+    synchronized long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * @return total number of entries or -1 while the directory is being listed.
+     */
+    synchronized long getTotal() {
+        return total;
+    }
+
+    synchronized double getEntriesPerSecond() {
+        long elapsed = lastProgress - phaseStart;
+        if (elapsed <= 0)
+            return 0;
+        return processed * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * @return estimated remaining seconds or -1 when this cannot be estimated.
+     */
+    synchronized long getRemainingSeconds() {
+        double rate = getEntriesPerSecond();
+        if (total < 0 || rate <= 0)
+            return -1;
+        return (long) Math.ceil((total - processed) / rate);
+    }
+
+    /**
+     * @return seconds since the last progress, 0 unless the expansion is
+     *         stalled.
+     */
+    synchronized long getStalledSeconds() {
+        long idle = clock.getAsLong() - lastProgress;
+        if (idle < STALL_THRESHOLD_NANOS)
+            return 0;
+        return TimeUnit.NANOSECONDS.toSeconds(idle);
+    }
+
+    synchronized String describe() {
+        StringBuilder text = new StringBuilder();
+        if (total < 0) {
+            text.append(String.format("Reading directory: %,d entries", processed));
+        } else {
+            text.append(String.format("%,d of %,d entries", processed, total));
+        }
+        text.append(String.format(", %,.0f entries/s", getEntriesPerSecond()));
+
+        long remaining = getRemainingSeconds();
+        if (remaining >= 0 && processed < total) {
+            text.append(String.format(", about %d s remaining", remaining));
+        }
+
+        long stalled = getStalledSeconds();
+        if (stalled > 0) {
+            text.append(String.format(", no progress for %d s", stalled));
+        }
+        return text.toString();
+    }
+}
@@ -19,10 +19,18 @@
  */
 package net.raumzeitfalle.fx.dirchooser;
 
+import java.util.function.Supplier;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Worker;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Button;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.AnchorPane;
+import javafx.util.Duration;
 
 class ProgressIcon extends AnchorPane {
 
@@ -30,6 +38,10 @@ class ProgressIcon extends AnchorPane {
 
     private Button cancel;
 
+    private final Tooltip status = new Tooltip();
+
+    private Timeline statusUpdates;
+
     /*
      * TODO: Decorate the progress counter with an [X] to allow the user to cancel
      * an operation.
@@ -58,4 +70,35 @@ class ProgressIcon extends AnchorPane {
 
     }
 
+    /**
+     * Shows the progress of the given worker, the bar stays indeterminate as long
+     * as the worker does not know its total amount of work. The status text is
+     * shown as tooltip and refreshed every second, also when the worker does not
+     * report any progress.
+     * 
+     * Must be called on the JavaFX application thread.
+     * 
+     * @param worker     {@link Worker} to observe
+     * @param statusText Supplies the status text
+     */
+    void track(Worker<?> worker, Supplier<String> statusText) {
+        progressBar.progressProperty().bind(worker.progressProperty());
+        status.setText(statusText.get());
+        Tooltip.install(this, status);
+        statusUpdates = new Timeline(new KeyFrame(Duration.seconds(1), evt -> status.setText(statusText.get())));
+        statusUpdates.setCycleCount(Animation.INDEFINITE);
+        statusUpdates.play();
+    }
+
+    /**
+     * Stops refreshing the status text. Must be called on the JavaFX application
+     * thread.
+     */
+    void stop() {
+        if (null != statusUpdates) {
+            statusUpdates.stop();
+        }
+        progressBar.progressProperty().unbind();
+    }
+
 }
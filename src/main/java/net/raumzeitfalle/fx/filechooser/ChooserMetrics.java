@@ -0,0 +1,217 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+/**
+ * Performance metrics of one file chooser: how long scanning the current
+ * directory takes, how fast the results arrive on the JavaFX application
+ * thread, how long filtering takes and how often cached file listings are
+ * used. When an {@link FxStallDetector} is observed, stalls of the JavaFX
+ * application thread are counted as well.
+ * <p>
+ * The properties are updated on the JavaFX application thread whenever a scan
+ * ends or a filter is applied, so that they can be bound or observed directly.
+ * A {@link MetricsSnapshot} of all values can be taken from any thread.
+ */
+public final class ChooserMetrics {
+
+    private final PublicationStatistics publicationStatistics = new PublicationStatistics();
+
+    private final LatencyRecorder attributeReads = new LatencyRecorder();
+
+    private final LatencyRecorder filterLatencies = new LatencyRecorder();
+
+    private final AtomicLong cacheHits = new AtomicLong(0);
+
+    private final AtomicLong cacheMisses = new AtomicLong(0);
+
+    private final ReadOnlyDoubleWrapper scanDuration = new ReadOnlyDoubleWrapper(this, "scanDuration", 0d);
+
+    private final ReadOnlyIntegerWrapper scannedEntries = new ReadOnlyIntegerWrapper(this, "scannedEntries", 0);
+
+    private final ReadOnlyDoubleWrapper entriesPerSecond = new ReadOnlyDoubleWrapper(this, "entriesPerSecond", 0d);
+
+    private final ReadOnlyDoubleWrapper publicationLag = new ReadOnlyDoubleWrapper(this, "publicationLag", 0d);
+
+    private final ReadOnlyDoubleWrapper filterLatency = new ReadOnlyDoubleWrapper(this, "filterLatency", 0d);
+
+    private final ReadOnlyDoubleWrapper cacheHitRate = new ReadOnlyDoubleWrapper(this, "cacheHitRate", 0d);
+
+    private final AtomicLong fxThreadStalls = new AtomicLong(0);
+
+    private final ReadOnlyObjectWrapper<FxStall> lastFxThreadStall = new ReadOnlyObjectWrapper<>(this,
+            "lastFxThreadStall", null);
+
+    private final Consumer<FxStall> stallListener = this::stallDetected;
+
+    private volatile FxStallDetector stallDetector = null;
+
+    private volatile double lastScanDuration = 0d;
+
+    private volatile int lastScannedEntries = 0;
+
+    ChooserMetrics() {
+        /* created by the file chooser model */
+    }
+
+    static double entriesPerSecond(int entries, double seconds) {
+        return seconds > 0 ? entries / seconds : 0d;
+    }
+
+    static double hitRate(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 0d : (double) hits / requests;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return duration of the most recent scan in seconds.
+     */
+    public ReadOnlyDoubleProperty scanDurationProperty() {
+        return scanDuration.getReadOnlyProperty();
+    }
+
+    /**
+     * @return number of directory entries processed by the most recent scan.
+     */
+    public ReadOnlyIntegerProperty scannedEntriesProperty() {
+        return scannedEntries.getReadOnlyProperty();
+    }
+
+    /**
+     * @return directory entries per second of the most recent scan.
+     */
+    public ReadOnlyDoubleProperty entriesPerSecondProperty() {
+        return entriesPerSecond.getReadOnlyProperty();
+    }
+
+    /**
+     * @return time in milliseconds between collecting the first file of the last
+     *         update of the most recent scan and its publication on the JavaFX
+     *         application thread.
+     */
+    public ReadOnlyDoubleProperty publicationLagProperty() {
+        return publicationLag.getReadOnlyProperty();
+    }
+
+    /**
+     * @return time in milliseconds the most recent filter change took.
+     */
+    public ReadOnlyDoubleProperty filterLatencyProperty() {
+        return filterLatency.getReadOnlyProperty();
+    }
+
+    /**
+     * @return share of directory changes served from the file listing cache,
+     *         between 0 and 1.
+     */
+    public ReadOnlyDoubleProperty cacheHitRateProperty() {
+        return cacheHitRate.getReadOnlyProperty();
+    }
+
+    /**
+     * @return the most recent stall of the JavaFX application thread reported by
+     *         the observed {@link FxStallDetector}, null if there was none.
+     */
+    public ReadOnlyObjectProperty<FxStall> lastFxThreadStallProperty() {
+        return lastFxThreadStall.getReadOnlyProperty();
+    }
+
+    /**
+     * @return {@link MetricsSnapshot} with the current values.
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.currentTimeMillis(), lastScanDuration, lastScannedEntries,
+                attributeReads.toDistribution(), publicationStatistics, filterLatencies.toDistribution(),
+                cacheHits.get(), cacheMisses.get(), fxThreadLatencies(), fxThreadStalls.get());
+    }
+
+    private LatencyDistribution fxThreadLatencies() {
+        FxStallDetector detector = stallDetector;
+        return null != detector ? detector.getLatencies() : LatencyDistribution.empty();
+    }
+
+    /**
+     * Counts the stalls reported by the given detector from now on.
+     * 
+     * @param detector {@link FxStallDetector} or null to stop observing.
+     */
+    synchronized void observe(FxStallDetector detector) {
+        if (null != stallDetector) {
+            stallDetector.removeListener(stallListener);
+        }
+        stallDetector = detector;
+        if (null != detector) {
+            detector.addListener(stallListener);
+        }
+    }
+
+    PublicationStatistics getPublicationStatistics() {
+        return publicationStatistics;
+    }
+
+    /*
+     * Called by scanning threads, possibly concurrently.
+     */
+    void attributesRead(long nanos) {
+        attributeReads.record(nanos);
+    }
+
+    void listingRequested(boolean cached) {
+        (cached ? cacheHits : cacheMisses).incrementAndGet();
+    }
+
+    /*
+     * Called on the JavaFX application thread.
+     */
+    void scanFinished(int entries, double seconds) {
+        lastScanDuration = seconds;
+        lastScannedEntries = entries;
+        scanDuration.set(seconds);
+        scannedEntries.set(entries);
+        entriesPerSecond.set(entriesPerSecond(entries, seconds));
+        publicationLag.set(toMillis(publicationStatistics.getLastLatencyNanos()));
+        cacheHitRate.set(hitRate(cacheHits.get(), cacheMisses.get()));
+    }
+
+    void stallDetected(FxStall stall) {
+        fxThreadStalls.incrementAndGet();
+        lastFxThreadStall.set(stall);
+    }
+
+    void filterApplied(long nanos) {
+        filterLatencies.record(nanos);
+        filterLatency.set(toMillis(nanos));
+    }
+}
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import javafx.collections.ObservableList;
+
+/**
+ * Publishes batches of indexed files to the target collection on the JavaFX
+ * application thread using a single update slot.
+ * <p>
+ * At most one batch is in flight at any time. The producer claims the slot,
+ * hands over its batch and must not modify the batch until it is notified that
+ * the batch has been published. Items collected while the slot is taken are
+ * coalesced by the producer into its next batch (see {@link RefreshBuffer}).
+ * <p>
+ * The publisher does not allocate per publication. Adding a batch to the target
+ * collection copies the batch once, as {@link ObservableList#addAll} does.
+ */
+final class CoalescingPublisher {
+
+    private final ObservableList<IndexedPath> target;
+
+    private final PublicationStatistics statistics;
+
+    private final LongSupplier clock;
+
+    private final Runnable whenPublished;
+
+    private final AtomicBoolean taken = new AtomicBoolean(false);
+
+    private final Runnable consumer = this::publishOnFxThread;
+
+    private List<IndexedPath> batch;
+
+    private long collectedSince;
+
+    /**
+     * @param whenPublished called on the FX thread after each publication, the
+     *                      slot is still taken at that time and must be released
+     *                      by the producer
+     */
+    CoalescingPublisher(ObservableList<IndexedPath> target, PublicationStatistics statistics, LongSupplier clock,
+            Runnable whenPublished) {
+        this.target = target;
+        this.statistics = statistics;
+        this.clock = clock;
+        this.whenPublished = whenPublished;
+    }
+
+    /**
+     * @return true when the slot has been claimed, false if it is taken
+     */
+    boolean tryClaim() {
+        return taken.compareAndSet(false, true);
+    }
+
+    void release() {
+        taken.set(false);
+    }
+
+    /**
+     * @return true when no batch is in flight
+     */
+    boolean isIdle() {
+        return !taken.get();
+    }
+
+    /**
+     * Hands the batch over for publication, only permitted while holding the
+     * slot.
+     * 
+     * @param items     batch to be published
+     * @param since     time when the first item of the batch was collected
+     * @param publisher executes the publication on the FX thread
+     */
+    void publish(List<IndexedPath> items, long since, Executor publisher) {
+        this.batch = items;
+        this.collectedSince = since;
+        statistics.itemsQueued(items.size());
+        publisher.execute(consumer);
+    }
+
+    private void publishOnFxThread() {
+        List<IndexedPath> items = batch;
+        int size = items.size();
+        RecordedPhase publication = PerformanceEvents.publication(size);
+        target.addAll(items);
+        publication.end(size);
+        statistics.itemsPublished(size, clock.getAsLong() - collectedSince);
+        batch = null;
+        whenPublished.run();
+    }
+}
@@ -0,0 +1,256 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache of values derived from the contents of a directory, e.g. the
+ * list of its sub directories.
+ * <p>
+ * Each value is stored together with the last modified time of its directory
+ * at the time the directory was read. A value is only returned as long as the
+ * directory still has this modification time. Adding, removing or renaming an
+ * entry updates the modification time of a directory, hence such changes are
+ * detected. Changes deeper in the tree are not.
+ * <p>
+ * The least recently used values are evicted as soon as either the number of
+ * entries or the sum of the estimated sizes of all values exceeds its limit.
+ * 
+ * @param <V> Type of the cached values.
+ */
+public final class DirectoryCache<V> {
+
+    /**
+     * @param <V> Type of the cached values.
+     * @return {@link DirectoryCache} which never stores any value.
+     */
+    public static <V> DirectoryCache<V> disabled() {
+        return new DirectoryCache<>(0, 0, value -> 0);
+    }
+
+    private final int maxEntries;
+
+    private final long memoryBudget;
+
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<Path, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight = 0;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    /**
+     * @param maxEntries   Maximum number of directories to keep.
+     * @param memoryBudget Maximum sum of all value sizes in bytes, as estimated
+     *                     by the weigher.
+     * @param weigher      Estimates the size in bytes of a value.
+     */
+    public DirectoryCache(int maxEntries, long memoryBudget, ToLongFunction<V> weigher) {
+        if (maxEntries < 0)
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        if (memoryBudget < 0)
+            throw new IllegalArgumentException("memoryBudget must not be negative");
+        this.maxEntries = maxEntries;
+        this.memoryBudget = memoryBudget;
+        this.weigher = Objects.requireNonNull(weigher, "weigher must not be null");
+    }
+
+    /**
+     * @return true if this cache is able to store values at all.
+     */
+    public boolean isEnabled() {
+        return maxEntries > 0 && memoryBudget > 0;
+    }
+
+    /**
+     * Reads the last modified time of a directory, to be called before the
+     * directory is read so that changes during the read invalidate the value.
+     * 
+     * @param directory {@link Path} of the directory to be read.
+     * @return {@link FileTime} or {@link Optional#empty()} if the time is not
+     *         available.
+     */
+    public static Optional<FileTime> lastModified(Path directory) {
+        try {
+            return Optional.of(Files.getLastModifiedTime(directory));
+        } catch (IOException | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param directory {@link Path} of the directory.
+     * @return the value of the directory, provided that the directory has not
+     *         been modified since the value was stored.
+     */
+    public Optional<V> get(Path directory) {
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(directory);
+            if (null == entry) {
+                misses++;
+                return Optional.empty();
+            }
+        }
+
+        Optional<FileTime> modified = lastModified(directory);
+        synchronized (this) {
+            if (modified.isPresent() && modified.get().equals(entry.lastModified)) {
+                hits++;
+                return Optional.of(entry.value);
+            }
+            misses++;
+            if (entries.remove(directory, entry)) {
+                weight -= entry.weight;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks like {@link #get(Path)} whether a current value is stored, without
+     * counting a hit or a miss.
+     * 
+     * @param directory {@link Path} of the directory.
+     * @return true if a value is stored and the directory has not been modified
+     *         since.
+     */
+    public boolean contains(Path directory) {
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(directory);
+            if (null == entry)
+                return false;
+        }
+
+        Optional<FileTime> modified = lastModified(directory);
+        if (modified.isPresent() && modified.get().equals(entry.lastModified))
+            return true;
+        synchronized (this) {
+            if (entries.remove(directory, entry)) {
+                weight -= entry.weight;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stores the value of a directory.
+     * 
+     * @param directory    {@link Path} of the directory.
+     * @param lastModified Modification time of the directory before it was read,
+     *                     see {@link #lastModified(Path)}.
+     * @param value        Value to be stored.
+     */
+    public synchronized void put(Path directory, FileTime lastModified, V value) {
+        Entry<V> entry = new Entry<>(lastModified, value, weigher.applyAsLong(value));
+        Entry<V> replaced = entries.put(directory, entry);
+        if (null != replaced) {
+            weight -= replaced.weight;
+        }
+        weight += entry.weight;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || weight > memoryBudget)) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the value of the given directory.
+     * 
+     * @param directory {@link Path} of the directory.
+     */
+    public synchronized void invalidate(Path directory) {
+        Entry<V> removed = entries.remove(directory);
+        if (null != removed) {
+            weight -= removed.weight;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Sum of the estimated sizes of all values in bytes.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    synchronized Map<Path, V> snapshot() {
+        Map<Path, V> values = new LinkedHashMap<>();
+        entries.forEach((path, entry) -> values.put(path, entry.value));
+        return values;
+    }
+
+    private static final class Entry<V> {
+
+        private final FileTime lastModified;
+
+        private final V value;
+
+        private final long weight;
+
+        private Entry(FileTime lastModified, V value, long weight) {
+            this.lastModified = lastModified;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
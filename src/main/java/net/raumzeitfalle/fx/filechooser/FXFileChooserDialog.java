@@ -54,6 +54,10 @@ public class FXFileChooserDialog extends Dialog<Path> implements HideableView {
 
     private final FileChooserModel model;
 
+    private final FileChooserView view;
+
+    private boolean shown = false;
+
     private final double minWidth = 700;
 
     private final double minHeight = 550;
@@ -81,7 +85,7 @@ public class FXFileChooserDialog extends Dialog<Path> implements HideableView {
 
         Supplier<Window> ownerProvider = () -> getDialogPane().getScene().getWindow();
         PathSupplier pathSupplier = FXDirectoryChooser.createIn(model.currentSearchPath(), ownerProvider);
-        FileChooserView view = new FileChooserView(pathSupplier, this, model, skin, FileChooserViewOption.DIALOG, this);
+        this.view = new FileChooserView(pathSupplier, this, model, skin, FileChooserViewOption.DIALOG, this);
         getDialogPane().setContent(view);
         ButtonType okay = ButtonType.OK;
         getDialogPane().getButtonTypes().addAll(okay, ButtonType.CANCEL);
@@ -92,6 +96,7 @@ public class FXFileChooserDialog extends Dialog<Path> implements HideableView {
         setResultConverter(dialogButton -> {
             if (dialogButton == okay) {
                 this.hide();
+                model.acceptSelection();
                 return model.getSelectedFile();
             }
             return null;
@@ -116,6 +121,10 @@ public class FXFileChooserDialog extends Dialog<Path> implements HideableView {
         if (null == this.getOwner()) {
             this.initOwner(ownerWindow);
         }
+        if (shown) {
+            view.prepareForReuse(model.getReusePolicy());
+        }
+        shown = true;
         return this.showAndWait();
     }
 
@@ -127,4 +136,20 @@ public class FXFileChooserDialog extends Dialog<Path> implements HideableView {
     public void addLocations(List<Location> locations) {
         locations.forEach(model::addLocation);
     }
+
+    /**
+     * @return {@link FileChooserModel} of this chooser, e.g. to configure its
+     *         location history, prefetching and reuse
+     */
+    public FileChooserModel getModel() {
+        return model;
+    }
+
+    /**
+     * Hides the dialog and releases all resources held by this chooser.
+     */
+    public void dispose() {
+        this.hide();
+        this.model.dispose();
+    }
 }
@@ -49,10 +49,14 @@ public class FXFileChooserStage extends Stage implements HideableView {
 
     private final FileChooserModel model;
 
+    private final FileChooserView view;
+
+    private boolean shown = false;
+
     private FXFileChooserStage(FileChooserModel model, Skin skin) throws IOException {
         this.model = model;
         FXDirectoryChooser dirChooser = FXDirectoryChooser.createIn(model.currentSearchPath(), () -> this);
-        FileChooserView view = new FileChooserView(dirChooser, this, model, skin, FileChooserViewOption.STAGE);
+        this.view = new FileChooserView(dirChooser, this, model, skin, FileChooserViewOption.STAGE);
         Scene scene = new Scene(view);
         this.setScene(scene);
         StringBinding sb = Bindings.createStringBinding(() -> {
@@ -76,7 +80,10 @@ public class FXFileChooserStage extends Stage implements HideableView {
         if (null == this.getOwner()) {
             this.initOwner(ownerWindow);
         }
-
+        if (shown) {
+            view.prepareForReuse(model.getReusePolicy());
+        }
+        shown = true;
         this.showAndWait();
         return this.getSelectedPath();
     }
@@ -93,4 +100,20 @@ public class FXFileChooserStage extends Stage implements HideableView {
     public void addLocations(List<Location> locations) {
         locations.forEach(model::addLocation);
     }
+
+    /**
+     * @return {@link FileChooserModel} of this chooser, e.g. to configure its
+     *         location history, prefetching and reuse
+     */
+    public FileChooserModel getModel() {
+        return model;
+    }
+
+    /**
+     * Hides the stage and releases all resources held by this chooser.
+     */
+    public void dispose() {
+        this.hide();
+        this.model.dispose();
+    }
 }
@@ -20,11 +20,11 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Comparator;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -164,6 +164,37 @@ final class FileChooserController implements Initializable {
         this.dialog = dialog;
     }
 
+    /**
+     * Initializes this controller with the nodes of a programmatically created
+     * view instead of nodes injected by FXMLLoader.
+     * 
+     * @param view {@link FileChooserViewBuilder} which has built the view.
+     */
+    void initialize(FileChooserViewBuilder view) {
+        this.fileChooserView = view.fileChooserView;
+        this.chooser = view.chooser;
+        this.usersHomeCommand = view.usersHomeCommand;
+        this.fileExtensionFilter = view.fileExtensionFilter;
+        this.showAllFilesFilter = view.showAllFilesFilter;
+        this.counterPane = view.counterPane;
+        this.filteredPathsCount = view.filteredPathsCount;
+        this.allPathsCount = view.allPathsCount;
+        this.progressBar = view.progressBar;
+        this.fileNameFilter = view.fileNameFilter;
+        this.listOfFiles = view.listOfFiles;
+        this.selectedFile = view.selectedFile;
+        this.refreshButton = view.refreshButton;
+        this.stopButton = view.stopButton;
+        this.sortMenu = view.sortMenu;
+        this.buttonSortAz = view.buttonSortAz;
+        this.buttonSortZa = view.buttonSortZa;
+        this.buttonSortOldestFirst = view.buttonSortOldestFirst;
+        this.buttonSortRecentFirst = view.buttonSortRecentFirst;
+        this.okButton = view.okButton;
+        this.cancelButton = view.cancelButton;
+        initialize(null, null);
+    }
+
     @FXML
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -204,6 +235,10 @@ final class FileChooserController implements Initializable {
         this.model.getLocations().addListener(this::handleAddedLocation);
 
         this.chooser.setOnAction(e -> changeDirectory());
+        this.chooser.setOnShowing(e -> {
+            model.refreshHistoryLocations();
+            refreshLocationMenuItems();
+        });
 
         refreshButton.setOnAction(e -> model.refreshFiles());
         stopButton.setOnAction(e -> model.getUpdateService().cancelUpdate());
@@ -269,11 +304,30 @@ final class FileChooserController implements Initializable {
     }
 
     private void handlePossiblePastedPath() {
-        Path pastedPath = this.model.pastedPathProperty().get();
-        if (null != pastedPath) {
-            acceptPathAndSelectFileIfValid(pastedPath);
-        } else {
+        String text = fileNameFilter.getText();
+        Optional<Path> pastedPath = toPath(text);
+        if (!pastedPath.isPresent()) {
             tryManualInputPathSelection();
+            return;
+        }
+        FileSystemProbe.shared().exists(pastedPath.get()).thenAccept(exists -> Platform.runLater(() -> {
+            if (!text.equals(fileNameFilter.getText()))
+                return;
+            if (exists.booleanValue()) {
+                acceptPathAndSelectFileIfValid(pastedPath.get());
+            } else {
+                tryManualInputPathSelection();
+            }
+        }));
+    }
+
+    private static Optional<Path> toPath(String text) {
+        if (text.isEmpty())
+            return Optional.empty();
+        try {
+            return Optional.of(Paths.get(text));
+        } catch (InvalidPathException invalid) {
+            return Optional.empty();
         }
     }
 
@@ -293,59 +347,41 @@ final class FileChooserController implements Initializable {
             return;
 
         Path pasted = Paths.get(pastedText);
-        Path parent = pasted;
-        if (!Files.exists(pasted) || !Files.isDirectory(pasted)) {
-            parent = pasted.getParent();
-        }
-
-        /*
-         * Rebuild this to a while loop * while "parent" not exists & parent is not file
-         * get parent
-         * 
-         * Ensure that already here is determined, if parent exists or not! Then call
-         * the update service.
-         * 
-         */
-
-        selectFirstExistingParentPath(pasted, parent);
+        FileSystemProbe.shared()
+                       .firstAccessibleDirectory(pasted)
+                       .thenAccept(parent -> Platform.runLater(() -> selectFirstExistingParentPath(pastedText, parent)));
     }
 
-    private void selectFirstExistingParentPath(Path pasted, Path parent) {
-        boolean parentExists = false;
-        while (parent != null && !parentExists) {
-            parentExists = Files.exists(parent);
-            if (parentExists) {
-                model.getUpdateService().restartIn(parent);
-                this.fileNameFilter.setText(parent.toString());
-                fileNameFilter.positionCaret(parent.toString().length() + 1);
-            } else {
-                parent = pasted.getParent();
-            }
-            /*
-             * This is required on Windows as in some cases a share or drive letter is
-             * listed but actually not available. In these cases File().list() will provide
-             * a null value without throwing an exception.
-             * 
-             * Interestingly Files.notExists() blocks. But it works fine when previously
-             * (parent.toFile().list()) is called.
-             */
-            if (parent.toFile().list() == null) {
-                Logger.getLogger(FileChooserController.class.getName()).log(Level.SEVERE, "path is not accessible: {0}",
-                        parent);
-                break;
-            }
-            model.pastedPathProperty().set(parent);
+    /*
+     * The file system is checked in background as Files.exists() and
+     * File.list() can block for a long time on unavailable network shares. When
+     * the text has been changed in the meantime, the result is not used anymore.
+     */
+    private void selectFirstExistingParentPath(String pastedText, Optional<Path> parent) {
+        if (!pastedText.equals(fileNameFilter.getText()))
+            return;
+
+        if (!parent.isPresent()) {
+            Logger.getLogger(FileChooserController.class.getName()).log(Level.SEVERE, "path is not accessible: {0}",
+                    pastedText);
+            return;
         }
+
+        Path directory = parent.get();
+        model.getUpdateService().restartIn(directory);
+        this.fileNameFilter.setText(directory.toString());
+        fileNameFilter.positionCaret(directory.toString().length() + 1);
+        model.pastedPathProperty().set(directory);
     }
 
     private void acceptPathAndSelectFileIfValid(Path pastedPath) {
         model.getUpdateService().restartIn(pastedPath);
         this.fileNameFilter.setText("");
-        if (Files.exists(pastedPath)) {
-            if (Files.isRegularFile(pastedPath)) {
-                selectEnteredFileAndRequestOkayFocus(pastedPath);
+        FileSystemProbe.shared().isRegularFile(pastedPath).thenAccept(isFile -> {
+            if (isFile.booleanValue()) {
+                Platform.runLater(() -> selectEnteredFileAndRequestOkayFocus(pastedPath));
             }
-        }
+        });
     }
 
     private void selectEnteredFileAndRequestOkayFocus(Path pastedPath) {
@@ -365,16 +401,17 @@ final class FileChooserController implements Initializable {
     }
 
     private void evaluateIfPathWasEntered() {
-        try {
-            Path possiblePath = Paths.get(fileNameFilter.getText());
-            if (null != possiblePath && possiblePath.toFile().exists()) {
-                this.model.pastedPathProperty().set(possiblePath);
-            } else {
-                this.model.pastedPathProperty().set(null);
-            }
-        } catch (InvalidPathException ipe) {
+        String text = fileNameFilter.getText();
+        Optional<Path> possiblePath = toPath(text);
+        if (!possiblePath.isPresent()) {
             this.model.pastedPathProperty().set(null);
+            return;
         }
+        FileSystemProbe.shared().exists(possiblePath.get()).thenAccept(exists -> Platform.runLater(() -> {
+            if (text.equals(fileNameFilter.getText())) {
+                this.model.pastedPathProperty().set(exists.booleanValue() ? possiblePath.get() : null);
+            }
+        }));
     }
 
     private void handleDoubleClickInFilesList(MouseEvent event) {
@@ -388,7 +425,24 @@ final class FileChooserController implements Initializable {
         }
     }
 
+    /**
+     * Resets the view according to the given policy before the chooser is shown
+     * again.
+     * 
+     * @param policy {@link ReusePolicy}
+     */
+    void prepareForReuse(ReusePolicy policy) {
+        if (policy.resetsState()) {
+            fileNameFilter.setText("");
+            listOfFiles.getSelectionModel().clearSelection();
+            listOfFiles.scrollTo(0);
+        }
+        model.prepareForReuse(policy);
+        Platform.runLater(() -> fileNameFilter.requestFocus());
+    }
+
     private void okayAction() {
+        this.model.acceptSelection();
         this.stage.closeView();
     }
 
@@ -412,11 +466,24 @@ final class FileChooserController implements Initializable {
         }
     }
 
+    private void refreshLocationMenuItems() {
+        chooser.getItems()
+               .stream()
+               .filter(LocationMenuItem.class::isInstance)
+               .map(LocationMenuItem.class::cast)
+               .forEach(LocationMenuItem::refresh);
+    }
+
     private void handleAddedLocation(SetChangeListener.Change<? extends Location> change) {
         if (change.wasAdded()) {
             Location added = change.getElementAdded();
             chooser.getItems().add(menuItemFactory.apply(added));
         }
+        if (change.wasRemoved()) {
+            Location removed = change.getElementRemoved();
+            chooser.getItems().removeIf(item -> item instanceof LocationMenuItem
+                    && ((LocationMenuItem) item).matchesLocation(removed));
+        }
     }
 
     private void addNewPathFilterMenuItem(PathFilter p) {
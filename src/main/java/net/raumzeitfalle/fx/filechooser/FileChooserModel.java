@@ -24,7 +24,12 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -47,11 +52,18 @@ import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
 import javafx.collections.transformation.FilteredList;
 import net.raumzeitfalle.fx.filechooser.locations.Location;
+import net.raumzeitfalle.fx.filechooser.locations.LocationHistory;
 
 final class FileChooserModel {
 
+    /**
+     * Number of most frequently used directories offered as locations.
+     */
+    static final int HISTORY_LOCATIONS = 5;
+
     private final ObservableList<IndexedPath> allPaths;
 
     private final FilteredList<IndexedPath> filteredPaths;
@@ -77,6 +89,16 @@ final class FileChooserModel {
 
     private final ObjectProperty<Path> pastedPath = new SimpleObjectProperty<>();
 
+    private final ChooserMetrics metrics = new ChooserMetrics();
+
+    private LocationPrefetcher prefetcher = null;
+
+    private LocationHistory history = null;
+
+    private ReusePolicy reusePolicy = ReusePolicy.keepState();
+
+    private final Set<Location> historyLocations = new HashSet<>();
+
     public static FileChooserModel startingInUsersHome(PathFilter... filter) {
         return startingIn(getUsersHome(), filter);
     }
@@ -98,8 +120,10 @@ final class FileChooserModel {
         // TODO: Make FileUpdateService part of the controller and rewire model and
         // service inside the controller
         this.fileUpdateService = serviceProvider.get();
+        this.fileUpdateService.setMetrics(metrics);
         this.fileUpdateService.startUpdate();
         this.selectedFileName.bind(createStringBindingTo(fileSelection));
+        this.locations.addListener((SetChangeListener<Location>) change -> prefetchLocations());
         this.initializeFilter("");
 
     }
@@ -114,6 +138,13 @@ final class FileChooserModel {
         return Paths.get(System.getProperty("user.home"));
     }
 
+    /**
+     * @return {@link ChooserMetrics} of the scans and filters of this model.
+     */
+    public ChooserMetrics getMetrics() {
+        return this.metrics;
+    }
+
     public UpdateService getUpdateService() {
         return this.fileUpdateService;
     }
@@ -169,7 +200,11 @@ final class FileChooserModel {
     public void updateFilterCriterion(String criterion) {
         Predicate<IndexedPath> combined = createManualListFilter(criterion)
                 .and(indexedPath -> this.effectiveFilter.getPredicate().test(indexedPath.toString()));
+        RecordedPhase filter = PerformanceEvents.filter(effectiveFilter.getName(), criterion, allPaths.size());
+        long start = System.nanoTime();
         this.filteredPaths.setPredicate(combined);
+        metrics.filterApplied(System.nanoTime() - start);
+        filter.end(filteredPaths.size());
     }
 
     /**
@@ -211,6 +246,135 @@ final class FileChooserModel {
         return corrected;
     }
 
+    /**
+     * Cancels a running update and releases all resources held by the update
+     * service. The model must not be used afterwards.
+     */
+    public void dispose() {
+        this.fileUpdateService.dispose();
+        metrics.observe(null);
+        if (null != prefetcher) {
+            prefetcher.cancel();
+        }
+    }
+
+    /**
+     * Configures if and how many of the most used locations are read in
+     * background, so that their files are shown instantly once selected.
+     * 
+     * @param policy {@link PrefetchPolicy}
+     */
+    public void setPrefetchPolicy(PrefetchPolicy policy) {
+        Objects.requireNonNull(policy, "policy must not be null");
+        if (null != prefetcher) {
+            prefetcher.cancel();
+            prefetcher = null;
+        }
+        if (!policy.isEnabled()) {
+            fileUpdateService.setListingCache(DirectoryCache.disabled());
+            return;
+        }
+        fileUpdateService.setListingCache(FileListingCache.shared());
+        prefetcher = new LocationPrefetcher(policy, FileListingCache.shared(), FileSystemProbe.shared());
+        prefetcher.rankBy(history);
+        prefetchLocations();
+    }
+
+    /**
+     * Reports stalls of the JavaFX application thread detected by the given
+     * detector through the {@link ChooserMetrics} of this model.
+     * 
+     * @param detector {@link FxStallDetector} or null to stop observing stalls.
+     */
+    public void setStallDetector(FxStallDetector detector) {
+        metrics.observe(detector);
+    }
+
+    /**
+     * Remembers the directories where files are chosen in the given history and
+     * offers its most frequently used directories as locations.
+     * 
+     * @param history {@link LocationHistory}
+     */
+    public void setLocationHistory(LocationHistory history) {
+        this.history = Objects.requireNonNull(history, "history must not be null");
+        if (null != prefetcher) {
+            prefetcher.rankBy(history);
+        }
+        refreshHistoryLocations();
+    }
+
+    /**
+     * Replaces the locations offered from the location history with its
+     * currently most frequently used directories.
+     */
+    public void refreshHistoryLocations() {
+        if (null == history)
+            return;
+        List<Location> top = history.getTopLocations(HISTORY_LOCATIONS);
+        Iterator<Location> offered = historyLocations.iterator();
+        while (offered.hasNext()) {
+            Location location = offered.next();
+            if (!top.contains(location)) {
+                locations.remove(location);
+                offered.remove();
+            }
+        }
+        for (Location location : top) {
+            if (locations.add(location)) {
+                historyLocations.add(location);
+            }
+        }
+    }
+
+    /**
+     * Records the directory of the selected file in the location history, to be
+     * called once the user accepted the selection.
+     */
+    public void acceptSelection() {
+        Path selected = getSelectedFile();
+        if (null != history && null != selected && null != selected.getParent()) {
+            history.record(selected.getParent());
+        }
+    }
+
+    private void prefetchLocations() {
+        if (null != prefetcher) {
+            prefetcher.prefetch(locations);
+        }
+    }
+
+    /**
+     * Defines how the chooser is prepared when it is shown again. By default the
+     * state of the previous use is kept.
+     * 
+     * @param policy {@link ReusePolicy}, e.g.
+     *               {@code ReusePolicy.resetState().withRescan()}
+     */
+    public void setReusePolicy(ReusePolicy policy) {
+        this.reusePolicy = Objects.requireNonNull(policy, "policy must not be null");
+    }
+
+    public ReusePolicy getReusePolicy() {
+        return this.reusePolicy;
+    }
+
+    /**
+     * Prepares this model for showing its chooser once more, according to the
+     * given policy.
+     * 
+     * @param policy {@link ReusePolicy}
+     */
+    public void prepareForReuse(ReusePolicy policy) {
+        if (policy.resetsState()) {
+            setSelectedFile(null);
+            pastedPath.set(null);
+        }
+        if (policy.rescans()) {
+            refreshFiles();
+        }
+    }
+
     public void refreshFiles() {
         this.fileUpdateService.refresh();
     }
@@ -224,6 +388,10 @@ final class FileChooserModel {
     public void updateFilesIn(Location location) {
         if (null != location) {
             fileUpdateService.restartIn(location.getPath());
+            if (null != prefetcher) {
+                prefetcher.recordUse(location);
+                prefetchLocations();
+            }
         }
     }
 
@@ -244,7 +412,9 @@ final class FileChooserModel {
     }
 
     public void sort(Comparator<IndexedPath> comparator) {
+        RecordedPhase sort = PerformanceEvents.sort(allPaths.size());
         this.allPaths.sort(comparator);
+        sort.end(allPaths.size());
     }
 
     public void addOrRemoveFilter(PathFilter newFilter) {
@@ -30,6 +30,8 @@ import javafx.scene.layout.AnchorPane;
 
 final class FileChooserView extends AnchorPane {
 
+    private final FileChooserController controller;
+
     public FileChooserView(PathSupplier pathSupplier, final HideableView window, FileChooserModel model, Skin skin,
             FileChooserViewOption fileChooserViewOption) throws IOException {
         this(pathSupplier, window, model, skin, fileChooserViewOption, null);
@@ -37,14 +39,9 @@ final class FileChooserView extends AnchorPane {
 
     public FileChooserView(PathSupplier pathSupplier, final HideableView window, FileChooserModel model, Skin skin,
             FileChooserViewOption fileChooserViewOption, Dialog<Path> dialog) throws IOException {
-        Class<?> thisClass = getClass();
-        String fileName = thisClass.getSimpleName() + ".fxml";
-        URL resource = thisClass.getResource(fileName);
-        FXMLLoader loader = new FXMLLoader(resource);
-        FileChooserController controller = new FileChooserController(model, pathSupplier, window, fileChooserViewOption,
-                dialog);
-        loader.setController(controller);
-        Parent view = loader.load();
+        controller = new FileChooserController(model, pathSupplier, window, fileChooserViewOption, dialog);
+        Parent view = ViewConstruction.PROGRAMMATIC.equals(ViewConstruction.selected()) ? build(controller)
+                : load(controller);
         this.getChildren().add(view);
         AnchorPane.setLeftAnchor(view, 0.0);
         AnchorPane.setRightAnchor(view, 0.0);
@@ -54,4 +51,30 @@ final class FileChooserView extends AnchorPane {
 
     }
 
+    /**
+     * Resets selection, filter and file list according to the given policy, to
+     * be called before the chooser is shown again.
+     * 
+     * @param policy {@link ReusePolicy}
+     */
+    void prepareForReuse(ReusePolicy policy) {
+        controller.prepareForReuse(policy);
+    }
+
+    private Parent load(FileChooserController controller) throws IOException {
+        Class<?> thisClass = getClass();
+        String fileName = thisClass.getSimpleName() + ".fxml";
+        URL resource = thisClass.getResource(fileName);
+        FXMLLoader loader = new FXMLLoader(resource);
+        loader.setController(controller);
+        return loader.load();
+    }
+
+    private static Parent build(FileChooserController controller) {
+        FileChooserViewBuilder builder = new FileChooserViewBuilder();
+        Parent view = builder.build();
+        controller.initialize(builder);
+        return view;
+    }
+
 }
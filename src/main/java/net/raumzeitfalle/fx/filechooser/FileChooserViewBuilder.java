@@ -0,0 +1,265 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBase;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.SplitMenuButton;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.SVGPath;
+
+/**
+ * Creates the scene graph described by FileChooserView.fxml in code, see
+ * {@link ViewConstruction#PROGRAMMATIC}. Changes to the FXML file must be
+ * applied here as well, FileChooserViewBuilderTest compares both views.
+ */
+final class FileChooserViewBuilder {
+
+    private static final String FOLDER_ICON = "m 21.885212,9.315891 -2.514723,4.526484 A 2.2221185,2.333224 0 0 1 17.45101,15 H 3.5633684 C 2.9202084,15 2.5194793,14.267443 2.8435418,13.684109 L 5.3582643,9.157625 A 2.2222227,2.3333334 0 0 1 7.2777785,8.0000001 H 21.16542 c 0.64316,0 1.043889,0.732557 0.719792,1.3158909 z M 7.2777785,6.8333329 H 18.66667 V 5.0833328 c 0,-0.9665101 -0.746181,-1.75 -1.666667,-1.75 H 11.444446 L 9.2222235,1 H 3.6666668 C 2.7461809,1 2.0000001,1.783489 2.0000001,2.75 V 12.887094 L 4.3985076,8.5697704 C 4.9935418,7.4986977 6.096841,6.8333329 7.2777785,6.8333329 Z";
+
+    private static final String FILE_TYPE_ICON = "M 6.9166667,4.71875 V 1 H 1.1875 C 0.80651042,1 0.5,1.2925781 0.5,1.65625 v 12.6875 C 0.5,14.707422 0.80651042,15 1.1875,15 h 9.625 C 11.19349,15 11.5,14.707422 11.5,14.34375 V 5.375 H 7.6041667 c -0.378125,0 -0.6875,-0.2953125 -0.6875,-0.65625 z M 8.75,11.171875 C 8.75,11.352344 8.5953125,11.5 8.40625,11.5 H 3.59375 C 3.4046875,11.5 3.25,11.352344 3.25,11.171875 v -0.21875 C 3.25,10.772656 3.4046875,10.625 3.59375,10.625 h 4.8125 c 0.1890625,0 0.34375,0.147656 0.34375,0.328125 z m 0,-1.75 C 8.75,9.602344 8.5953125,9.75 8.40625,9.75 H 3.59375 C 3.4046875,9.75 3.25,9.602344 3.25,9.421875 V 9.203125 C 3.25,9.022656 3.4046875,8.875 3.59375,8.875 h 4.8125 C 8.5953125,8.875 8.75,9.022656 8.75,9.203125 Z m 0,-1.96875 v 0.21875 C 8.75,7.8523437 8.5953125,8 8.40625,8 H 3.59375 C 3.4046875,8 3.25,7.8523437 3.25,7.671875 V 7.453125 C 3.25,7.2726563 3.4046875,7.125 3.59375,7.125 h 4.8125 C 8.5953125,7.125 8.75,7.2726563 8.75,7.453125 Z M 11.5,4.3332031 V 4.5 H 7.8333333 V 1 H 8.0080729 C 8.1914062,1 8.3661458,1.068359 8.4950521,1.1914063 L 11.299479,3.8710937 C 11.428385,3.9941406 11.5,4.1609375 11.5,4.3332031 Z";
+
+    private static final String REFRESH_ICON = "M 11.238064,4.536129 C 10.35567,3.7099033 9.2105485,3.256992 7.9957099,3.2580645 5.8093955,3.2599808 3.9219356,4.7590564 3.4008023,6.838508 3.3628623,6.989883 3.2280038,7.0967742 3.0719431,7.0967742 H 1.4545201 C 1.242883,7.0967742 1.0821089,6.9046411 1.121258,6.6966451 1.7319798,3.4535 4.5793992,1 8,1 9.8755485,1 11.578778,1.7377097 12.835504,2.9386896 L 13.843589,1.9306049 C 14.270335,1.5038589 15,1.8061008 15,2.409625 v 3.7839234 c 0,0.374133 -0.303286,0.6774193 -0.67742,0.6774193 h -3.783922 c -0.6035246,0 -0.9057671,-0.7296653 -0.479021,-1.1564394 z M 1.6774193,9.129032 h 3.7839231 c 0.6035242,0 0.9057667,0.729666 0.4790205,1.15644 l -1.1784273,1.178427 c 0.8823947,0.826254 2.0276008,1.279165 3.2424674,1.278065 2.185186,-0.002 4.073408,-1.500033 4.594795,-3.580416 0.03793,-0.151375 0.172798,-0.2582657 0.328859,-0.2582657 h 1.617451 c 0.211637,0 0.372412,0.1921327 0.333263,0.4001287 C 14.26802,12.5465 11.420601,15 8,15 6.1244515,15 4.421222,14.26229 3.1644963,13.061311 l -1.008085,1.008084 C 1.7296653,14.496141 1,14.193899 1,13.590375 V 9.806452 C 1,9.432319 1.3032863,9.129032 1.6774193,9.129032 Z";
+
+    private static final String SORT_AZ_ICON = "m 8.2306177,12.353549 -2.4472105,2.50006 c -0.191165,0.19522 -0.501258,0.19516 -0.692301,0 l -2.447149,-2.50006 c -0.308104,-0.31469 -0.08867,-0.85356 0.346166,-0.85356 h 1.468038 V 1.4999985 c 0,-0.27616 0.219161,-0.5 0.48954,-0.5 h 0.97908 c 0.270379,0 0.48954,0.22384 0.48954,0.5 v 9.9999905 h 1.4681305 c 0.435721,0 0.653628,0.5395 0.346166,0.85356 z M 11.873865,6.7283385 a 0.36715491,0.37499958 0 0 1 -0.352927,0.27165 h -1.092806 c -0.251501,0 -0.4285621,-0.25243 -0.347635,-0.49565 l 1.746923,-5.25 a 0.36715491,0.37499958 0 0 1 0.347635,-0.25434 h 1.210571 c 0.157234,0 0.297029,0.10228 0.347635,0.25434 l 1.746923,5.25 c 0.08093,0.24322 -0.0961,0.49565 -0.347635,0.49565 h -1.093356 a 0.36715491,0.37499958 0 0 1 -0.352316,-0.26943 l -0.25398,-0.88435 H 12.12145 Z m 0.699339,-2.45928 h 0.40898 l -0.201935,-0.71678 z m 0.384748,8.9788305 2.063747,-2.99056 a 0.36715491,0.37499958 0 0 0 0.06707,-0.21603 V 9.3749885 c 0,-0.20709 -0.164394,-0.375 -0.367155,-0.375 h -3.822269 c -0.202762,0 -0.367155,0.16791 -0.367155,0.375 v 0.9040605 c 0,0.2071 0.164393,0.375 0.367155,0.375 h 1.727739 c -0.02261,0.031 -0.0458,0.0636 -0.06945,0.0979 l -2.05616,2.97515 a 0.36718551,0.37503083 0 0 0 -0.06719,0.21625 v 0.68162 c 0,0.2071 0.164394,0.375 0.367155,0.375 h 3.957777 c 0.202761,0 0.367155,-0.1679 0.367155,-0.375 v -0.90406 c 0,-0.20709 -0.164394,-0.375 -0.367155,-0.375 h -1.870837 c 0.02264,-0.031 0.04589,-0.0637 0.06958,-0.098 z";
+
+    private static final String SORT_ZA_ICON = "M 2.6438621,3.6464472 5.0910729,1.1463938 c 0.1911646,-0.19522249 0.5012508,-0.19516085 0.6922945,0 L 8.230492,3.6464472 C 8.538595,3.9611421 8.319182,4.5000141 7.884324,4.5000141 H 6.4163174 V 14.499998 C 6.4163174,14.776158 6.1971577,15 5.9267752,15 H 4.9476996 C 4.6773171,15 4.4581574,14.776158 4.4581574,14.499998 V 4.5000141 H 2.9900223 c -0.4357158,0 -0.6536254,-0.5394972 -0.3461602,-0.8535669 z M 11.873861,6.728355 a 0.36715483,0.37499954 0 0 1 -0.352929,0.2716508 h -1.092806 c -0.251501,0 -0.42856,-0.2524358 -0.347635,-0.4956516 l 1.746924,-5.2499976 a 0.36715483,0.37499954 0 0 1 0.347634,-0.2543379 h 1.210565 c 0.157237,0 0.297032,0.1022829 0.347634,0.2543379 l 1.746924,5.2499976 c 0.08096,0.2432158 -0.09609,0.4956516 -0.347634,0.4956516 h -1.09335 A 0.36715483,0.37499954 0 0 1 13.686872,6.7305742 L 13.432887,5.8462298 H 12.121438 Z M 12.5732,4.269074 h 0.408979 L 12.780237,3.5522922 Z m 0.384743,8.978837 2.063744,-2.990562 a 0.36715483,0.37499954 0 0 0 0.06708,-0.216031 V 9.3750036 c 0,-0.2070932 -0.164393,-0.3749992 -0.367154,-0.3749992 h -3.822264 c -0.202761,0 -0.367154,0.167906 -0.367154,0.3749992 v 0.9040604 c 0,0.207094 0.164393,0.375 0.367154,0.375 h 1.72774 c -0.02259,0.031 -0.04578,0.06367 -0.06949,0.0979 l -2.056156,2.975161 a 0.36718543,0.3750308 0 0 0 -0.06716,0.216242 v 0.681628 c 0,0.207094 0.164394,0.374999 0.367155,0.374999 h 3.957775 c 0.20276,0 0.367153,-0.167905 0.367153,-0.374999 v -0.904061 c 0,-0.207094 -0.164393,-0.374999 -0.367153,-0.374999 h -1.870839 c 0.02268,-0.031 0.04587,-0.06376 0.06958,-0.09803 z";
+
+    private static final String SORT_OLDEST_FIRST_ICON = "M 7.1394519,12.353553 4.692241,14.853606 c -0.1911646,0.195223 -0.5012508,0.195161 -0.6922945,0 L 1.5528219,12.353553 c -0.308103,-0.314695 -0.08869,-0.853567 0.346168,-0.853567 H 3.3669965 V 1.5000019 c 0,-0.27616 0.2191597,-0.50000201 0.4895422,-0.50000201 h 0.9790756 c 0.2703825,0 0.4895422,0.22384201 0.4895422,0.50000201 v 9.9999841 h 1.4681352 c 0.4357158,0 0.6536254,0.539497 0.3461602,0.853567 z M 16.589725,6.1249529 H 8.3083644 c -0.128907,0 -0.234382,-0.105592 -0.234382,-0.2343338 v -0.703119 c 0,-0.5176128 0.419925,-0.9375237 0.93751,-0.9375237 h 0.937514 V 3.2343337 C 9.9490064,3.1055919 10.054481,3 10.183387,3 h 0.78126 c 0.128907,0 0.234381,0.1055919 0.234381,0.2343337 V 4.2499764 H 13.69906 V 3.2343337 C 13.69906,3.1055919 13.804534,3 13.933441,3 h 0.781261 c 0.128905,0 0.23438,0.1055919 0.23438,0.2343337 v 1.0156427 h 0.937512 c 0.517587,0 0.93751,0.4199109 0.93751,0.9375237 v 0.703119 c 0,0.128978 -0.105475,0.2343338 -0.234382,0.2343338 z M 8.3083644,6.7499761 h 8.2813606 c 0.128906,0 0.234381,0.105592 0.234381,0.2343343 V 12.062477 C 16.824106,12.580089 16.404183,13 15.886596,13 H 9.0115014 c -0.517584,0 -0.937509,-0.419911 -0.937509,-0.937523 V 6.9843104 c 0,-0.1287423 0.105474,-0.2343343 0.234382,-0.2343343 z m 2.2656536,3.9844289 c 0,-0.128742 -0.105474,-0.234334 -0.234381,-0.234334 H 9.5583764 c -0.128907,0 -0.234382,0.105592 -0.234382,0.234334 v 0.781261 c 0,0.128743 0.105475,0.234334 0.234382,0.234334 h 0.7812606 c 0.128907,0 0.234381,-0.105591 0.234381,-0.234334 z m 0,-2.5000478 c 0,-0.1287416 -0.105474,-0.2343335 -0.234381,-0.2343335 H 9.5583764 c -0.128907,0 -0.234382,0.1055919 -0.234382,0.2343335 v 0.7812619 c 0,0.1287417 0.105475,0.2343337 0.234382,0.2343337 h 0.7812606 c 0.128907,0 0.234381,-0.105592 0.234381,-0.2343337 z m 2.500036,2.5000478 c 0,-0.128742 -0.105474,-0.234334 -0.234381,-0.234334 h -0.781262 c -0.128908,0 -0.234381,0.105592 -0.234381,0.234334 v 0.781261 c 0,0.128743 0.105473,0.234334 0.234381,0.234334 h 0.781262 c 0.128907,0 0.234381,-0.105591 0.234381,-0.234334 z m 0,-2.5000478 c 0,-0.1287416 -0.105474,-0.2343335 -0.234381,-0.2343335 h -0.781262 c -0.128908,0 -0.234381,0.1055919 -0.234381,0.2343335 v 0.7812619 c 0,0.1287417 0.105473,0.2343337 0.234381,0.2343337 h 0.781262 c 0.128907,0 0.234381,-0.105592 0.234381,-0.2343337 z m 2.500033,2.5000478 c 0,-0.128742 -0.105475,-0.234334 -0.234381,-0.234334 h -0.781264 c -0.128908,0 -0.234381,0.105592 -0.234381,0.234334 v 0.781261 c 0,0.128743 0.105473,0.234334 0.234381,0.234334 h 0.781264 c 0.128906,0 0.234381,-0.105591 0.234381,-0.234334 z m 0,-2.5000478 c 0,-0.1287416 -0.105475,-0.2343335 -0.234381,-0.2343335 h -0.781264 c -0.128908,0 -0.234381,0.1055919 -0.234381,0.2343335 v 0.7812619 c 0,0.1287417 0.105473,0.2343337 0.234381,0.2343337 h 0.781264 c 0.128906,0 0.234381,-0.105592 0.234381,-0.2343337 z";
+
+    private static final String SORT_RECENT_FIRST_ICON = "m 1.5527223,3.6464469 2.4472109,-2.500053 c 0.1911646,-0.19522301 0.5012508,-0.19516101 0.6922945,0 l 2.4471246,2.500053 c 0.308103,0.314695 0.08869,0.853567 -0.346168,0.853567 H 5.3251777 V 14.499998 C 5.3251777,14.776158 5.106018,15 4.8356355,15 H 3.8565599 C 3.5861774,15 3.3670177,14.776158 3.3670177,14.499998 V 4.5000139 H 1.8988825 c -0.4357158,0 -0.6536254,-0.539497 -0.3461602,-0.853567 z M 16.589725,6.1249529 H 8.3083644 c -0.128907,0 -0.234382,-0.105592 -0.234382,-0.2343338 v -0.703119 c 0,-0.5176128 0.419925,-0.9375237 0.93751,-0.9375237 h 0.937514 V 3.2343337 C 9.9490064,3.1055919 10.054481,3 10.183387,3 h 0.78126 c 0.128907,0 0.234381,0.1055919 0.234381,0.2343337 V 4.2499764 H 13.69906 V 3.2343337 C 13.69906,3.1055919 13.804534,3 13.933441,3 h 0.781261 c 0.128905,0 0.23438,0.1055919 0.23438,0.2343337 v 1.0156427 h 0.937512 c 0.517587,0 0.93751,0.4199109 0.93751,0.9375237 v 0.703119 c 0,0.128978 -0.105475,0.2343338 -0.234382,0.2343338 z M 8.3083644,6.7499761 h 8.2813606 c 0.128906,0 0.234381,0.105592 0.234381,0.2343343 V 12.062477 C 16.824106,12.580089 16.404183,13 15.886596,13 H 9.0115014 c -0.517584,0 -0.937509,-0.419911 -0.937509,-0.937523 V 6.9843104 c 0,-0.1287423 0.105474,-0.2343343 0.234382,-0.2343343 z m 2.2656536,3.9844289 c 0,-0.128742 -0.105474,-0.234334 -0.234381,-0.234334 H 9.5583764 c -0.128907,0 -0.234382,0.105592 -0.234382,0.234334 v 0.781261 c 0,0.128743 0.105475,0.234334 0.234382,0.234334 h 0.7812606 c 0.128907,0 0.234381,-0.105591 0.234381,-0.234334 z m 0,-2.5000478 c 0,-0.1287416 -0.105474,-0.2343335 -0.234381,-0.2343335 H 9.5583764 c -0.128907,0 -0.234382,0.1055919 -0.234382,0.2343335 v 0.7812619 c 0,0.1287417 0.105475,0.2343337 0.234382,0.2343337 h 0.7812606 c 0.128907,0 0.234381,-0.105592 0.234381,-0.2343337 z m 2.500036,2.5000478 c 0,-0.128742 -0.105474,-0.234334 -0.234381,-0.234334 h -0.781262 c -0.128908,0 -0.234381,0.105592 -0.234381,0.234334 v 0.781261 c 0,0.128743 0.105473,0.234334 0.234381,0.234334 h 0.781262 c 0.128907,0 0.234381,-0.105591 0.234381,-0.234334 z m 0,-2.5000478 c 0,-0.1287416 -0.105474,-0.2343335 -0.234381,-0.2343335 h -0.781262 c -0.128908,0 -0.234381,0.1055919 -0.234381,0.2343335 v 0.7812619 c 0,0.1287417 0.105473,0.2343337 0.234381,0.2343337 h 0.781262 c 0.128907,0 0.234381,-0.105592 0.234381,-0.2343337 z m 2.500033,2.5000478 c 0,-0.128742 -0.105475,-0.234334 -0.234381,-0.234334 h -0.781264 c -0.128908,0 -0.234381,0.105592 -0.234381,0.234334 v 0.781261 c 0,0.128743 0.105473,0.234334 0.234381,0.234334 h 0.781264 c 0.128906,0 0.234381,-0.105591 0.234381,-0.234334 z m 0,-2.5000478 c 0,-0.1287416 -0.105475,-0.2343335 -0.234381,-0.2343335 h -0.781264 c -0.128908,0 -0.234381,0.1055919 -0.234381,0.2343335 v 0.7812619 c 0,0.1287417 0.105473,0.2343337 0.234381,0.2343337 h 0.781264 c 0.128906,0 0.234381,-0.105592 0.234381,-0.2343337 z";
+
+    private static final String STOP_ICON = "M 13.5,1 H 2.5 C 1.671875,1 1,1.671875 1,2.5 v 11 C 1,14.328125 1.671875,15 2.5,15 h 11 C 14.328125,15 15,14.328125 15,13.5 V 2.5 C 15,1.671875 14.328125,1 13.5,1 Z";
+
+    private static final String FILTER_ICON = "M 14.343089,0.99999546 H 1.6570127 c -0.582914,0 -0.87705065,0.70727004 -0.4640234,1.12030004 l 5.0570069,5.05777 v 5.6344295 c 0,0.21412 0.1044805,0.4148 0.2799179,0.53763 l 2.1874996,1.5307 c 0.4315663,0.30209 1.0325818,-0.004 1.0325818,-0.53763 V 7.1780655 l 5.0571435,-5.05777 c 0.41218,-0.41221 0.120067,-1.12030004 -0.46405,-1.12030004 z";
+
+    private static final double MAX = Double.MAX_VALUE;
+
+    final VBox fileChooserView = new VBox();
+
+    final SplitMenuButton chooser = new SplitMenuButton();
+
+    final MenuItem usersHomeCommand = menuItem("usersHomeCommand", "Users Home");
+
+    final MenuButton fileExtensionFilter = new MenuButton();
+
+    final MenuItem showAllFilesFilter = menuItem("showAllFilesFilter", "all files");
+
+    final Button refreshButton = new Button();
+
+    final MenuButton sortMenu = new MenuButton();
+
+    final MenuItem buttonSortAz = menuItem("buttonSortAz", "A - Z");
+
+    final MenuItem buttonSortZa = menuItem("buttonSortZa", "Z - A");
+
+    final MenuItem buttonSortOldestFirst = menuItem("buttonSortOldestFirst", "Oldest files first");
+
+    final MenuItem buttonSortRecentFirst = menuItem("buttonSortRecentFirst", "Recent files first");
+
+    final Button stopButton = new Button();
+
+    final ProgressBar progressBar = new ProgressBar(0.68);
+
+    final FlowPane counterPane = new FlowPane();
+
+    final Label filteredPathsCount = counterLabel("filtered");
+
+    final Label allPathsCount = counterLabel("allPaths");
+
+    final TextField fileNameFilter = new TextField();
+
+    final ListView<IndexedPath> listOfFiles = new ListView<>();
+
+    final TextField selectedFile = new TextField();
+
+    final Button okButton = new Button();
+
+    final Button cancelButton = new Button();
+
+    VBox build() {
+        fileChooserView.setId("fileChooserView");
+        fileChooserView.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        fileChooserView.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        fileChooserView.setPrefSize(600.0, 400.0);
+        fileChooserView.getChildren().addAll(createToolBar(), createProgressBar(), createFilterPane(),
+                createListOfFiles(), createSelectedFile(), createButtons());
+        return fileChooserView;
+    }
+
+    private HBox createToolBar() {
+        toolBarButton(chooser, "chooser", "Choose Directory");
+        chooser.setStyle("-fx-background-insets: 0;");
+        chooser.getItems().add(usersHomeCommand);
+        chooser.setGraphic(icon(FOLDER_ICON, "tool-bar-icon"));
+        HBox.setHgrow(chooser, Priority.ALWAYS);
+        HBox.setMargin(chooser, new Insets(0));
+
+        toolBarButton(fileExtensionFilter, "fileExtensionFilter", "File Type");
+        fileExtensionFilter.getItems().add(showAllFilesFilter);
+        fileExtensionFilter.setGraphic(icon(FILE_TYPE_ICON, "tool-bar-icon"));
+        fileExtensionFilter.setPadding(new Insets(10.0));
+        HBox.setHgrow(fileExtensionFilter, Priority.ALWAYS);
+
+        toolBarButton(refreshButton, "refreshButton", "Refresh");
+        refreshButton.setGraphic(icon(REFRESH_ICON, "tool-bar-icon"));
+        refreshButton.setPadding(new Insets(10.0));
+        HBox.setHgrow(refreshButton, Priority.ALWAYS);
+
+        toolBarButton(sortMenu, "sortMenu", "Sort");
+        buttonSortAz.setGraphic(icon(SORT_AZ_ICON, "menu-item-icon"));
+        buttonSortZa.setGraphic(icon(SORT_ZA_ICON, "menu-item-icon"));
+        buttonSortOldestFirst.setGraphic(icon(SORT_OLDEST_FIRST_ICON, "menu-item-icon"));
+        buttonSortRecentFirst.setGraphic(icon(SORT_RECENT_FIRST_ICON, "menu-item-icon"));
+        sortMenu.getItems().addAll(buttonSortAz, buttonSortZa, buttonSortOldestFirst, buttonSortRecentFirst);
+
+        toolBarButton(stopButton, "stopButton", "Stop");
+        stopButton.setPadding(new Insets(10.0));
+        stopButton.setGraphic(icon(STOP_ICON, "tool-bar-icon"));
+        HBox.setHgrow(stopButton, Priority.SOMETIMES);
+        HBox.setMargin(stopButton, new Insets(0));
+
+        HBox toolBar = new HBox(chooser, fileExtensionFilter, refreshButton, sortMenu, stopButton);
+        toolBar.setMaxHeight(60.0);
+        toolBar.setPrefSize(600.0, 30.0);
+        VBox.setVgrow(toolBar, Priority.NEVER);
+        return toolBar;
+    }
+
+    private ProgressBar createProgressBar() {
+        progressBar.setId("progressBar");
+        progressBar.setMinHeight(10.0);
+        progressBar.setPrefSize(600.0, 10.0);
+        progressBar.setMaxSize(MAX, 10.0);
+        progressBar.setStyle("-fx-background-radius: 0px;");
+        VBox.setVgrow(progressBar, Priority.NEVER);
+        return progressBar;
+    }
+
+    private StackPane createFilterPane() {
+        counterPane.setId("counterPane");
+        counterPane.setAlignment(Pos.CENTER_RIGHT);
+        counterPane.setMaxSize(MAX, MAX);
+        counterPane.setPadding(new Insets(0, 10.0, 0, 0));
+        counterPane.getChildren().addAll(counterLabel("("), filteredPathsCount, counterLabel("/"), allPathsCount,
+                counterLabel(")"));
+        filteredPathsCount.setId("filteredPathsCount");
+        allPathsCount.setId("allPathsCount");
+        HBox.setHgrow(counterPane, Priority.SOMETIMES);
+        HBox.setMargin(counterPane, new Insets(0));
+
+        HBox counters = new HBox(counterPane);
+        counters.setAlignment(Pos.CENTER_LEFT);
+        StackPane.setAlignment(counters, Pos.TOP_LEFT);
+
+        fileNameFilter.setId("fileNameFilter");
+        fileNameFilter.setMaxHeight(MAX);
+        fileNameFilter.setMinHeight(36.0);
+        fileNameFilter.setPromptText("(filter criterion)");
+        fileNameFilter.setPadding(new Insets(0, 0, 0, 25.0));
+
+        SVGPath filterIcon = icon(FILTER_ICON, "filter-icon");
+        filterIcon.setFill(Color.web("#00000087"));
+        filterIcon.setStroke(Color.WHITE);
+        StackPane.setAlignment(filterIcon, Pos.CENTER_LEFT);
+        StackPane.setMargin(filterIcon, new Insets(0, 0, 0, 6.0));
+
+        StackPane filterPane = new StackPane(counters, fileNameFilter, filterIcon);
+        VBox.setVgrow(filterPane, Priority.NEVER);
+        return filterPane;
+    }
+
+    private ListView<IndexedPath> createListOfFiles() {
+        listOfFiles.setId("listOfFiles");
+        listOfFiles.setPrefSize(200.0, 200.0);
+        VBox.setVgrow(listOfFiles, Priority.ALWAYS);
+        return listOfFiles;
+    }
+
+    private TextField createSelectedFile() {
+        selectedFile.setId("selectedFile");
+        selectedFile.setEditable(false);
+        selectedFile.setMinHeight(36.0);
+        selectedFile.setPromptText("(shows the selected file)");
+        VBox.setVgrow(selectedFile, Priority.NEVER);
+        return selectedFile;
+    }
+
+    private HBox createButtons() {
+        dialogButton(okButton, "okButton", "OK");
+        dialogButton(cancelButton, "cancelButton", "Cancel");
+        HBox buttons = new HBox(okButton, cancelButton);
+        buttons.setPrefSize(200.0, 36.0);
+        VBox.setVgrow(buttons, Priority.NEVER);
+        return buttons;
+    }
+
+    private static void toolBarButton(ButtonBase button, String id, String text) {
+        button.setId(id);
+        button.setText(text);
+        button.setMnemonicParsing(false);
+        button.setMaxHeight(MAX);
+    }
+
+    private static void dialogButton(Button button, String id, String text) {
+        toolBarButton(button, id, text);
+        button.setMaxWidth(MAX);
+        HBox.setHgrow(button, Priority.ALWAYS);
+    }
+
+    private static MenuItem menuItem(String id, String text) {
+        MenuItem item = new MenuItem(text);
+        item.setId(id);
+        item.setMnemonicParsing(false);
+        return item;
+    }
+
+    private static Label counterLabel(String text) {
+        Label label = new Label(text);
+        label.setAlignment(Pos.CENTER_RIGHT);
+        label.setContentDisplay(ContentDisplay.RIGHT);
+        label.setFocusTraversable(false);
+        label.setMaxSize(MAX, MAX);
+        label.getStyleClass().add("counter-label");
+        return label;
+    }
+
+    private static SVGPath icon(String content, String styleClass) {
+        SVGPath icon = new SVGPath();
+        icon.setContent(content);
+        icon.getStyleClass().add(styleClass);
+        return icon;
+    }
+}
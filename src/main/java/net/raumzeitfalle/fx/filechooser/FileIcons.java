@@ -19,6 +19,10 @@
  */
 package net.raumzeitfalle.fx.filechooser;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 
@@ -33,6 +37,8 @@ enum FileIcons {
     TXT(".txt", "icons/file-txt.png"),
     XML(".xml", "icons/file-xml.png");
         
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
     private final String suffix;
     
     private final String iconFileName;
@@ -43,9 +49,26 @@ enum FileIcons {
     }
     
     
+    /**
+     * Loads the images of all icons, which are then shared by all file lists.
+     */
+    static void preload() {
+        for (FileIcons icon : values()) {
+            image(icon.iconFileName);
+        }
+    }
+
+    boolean isLoaded() {
+        return IMAGES.containsKey(iconFileName);
+    }
+
+    private static Image image(String iconFileName) {
+        return IMAGES.computeIfAbsent(iconFileName,
+                name -> new Image(FileIcons.class.getResource(name).toExternalForm()));
+    }
+
     private static ImageView create(String iconFileName, double fitSize) {
-        String img = FileIcons.class.getResource(iconFileName).toExternalForm();
-        ImageView image = new ImageView(img);
+        ImageView image = new ImageView(image(iconFileName));
         image.preserveRatioProperty().set(true);
         image.setFitHeight(fitSize);
         return image;
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Listings of regular files per directory, shared by all file choosers which
+ * prefetch their locations. A listing is valid as long as its directory has not
+ * been modified, hence files added, removed or renamed are detected whereas
+ * changes of existing files are only visible after a refresh.
+ */
+final class FileListingCache {
+
+    static final int MAX_DIRECTORIES = 32;
+
+    static final long MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    private static final DirectoryCache<List<IndexedPath>> SHARED = new DirectoryCache<>(MAX_DIRECTORIES,
+            MEMORY_BUDGET, FileListingCache::estimateSize);
+
+    private FileListingCache() {
+        /* not intended for instantiation */
+    }
+
+    static DirectoryCache<List<IndexedPath>> shared() {
+        return SHARED;
+    }
+
+    static Path keyOf(Path directory) {
+        return directory.toAbsolutePath().normalize();
+    }
+
+    /*
+     * Rough estimate of the heap occupied by a listing: the path, its file name
+     * string, the timestamp and the IndexedPath itself.
+     */
+    static long estimateSize(List<IndexedPath> listing) {
+        long size = 64;
+        for (IndexedPath file : listing) {
+            size += 160 + 2L * file.toString().length();
+        }
+        return size;
+    }
+}
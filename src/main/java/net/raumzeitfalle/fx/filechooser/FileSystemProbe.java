@@ -0,0 +1,414 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Answers simple questions about paths (does it exist, is it a directory)
+ * without ever blocking the caller for longer than a given timeout.
+ * <p>
+ * On unavailable network shares, calls like {@link Files#exists} or
+ * {@link File#list()} can block for tens of seconds. Hence all checks run on
+ * dedicated daemon threads and each check completes after the timeout at the
+ * latest. When a check did not answer within the timeout, the share (or drive)
+ * of the path is remembered as unreachable and all checks for paths on it are
+ * answered immediately as negative until the cooldown has elapsed.
+ * <p>
+ * Checks are hedged: when the first attempt did not answer after the hedge
+ * delay, a second attempt is started and the first answer wins. This helps
+ * when a single request gets stuck, e.g. while a share reconnects. No hedge is
+ * started while all workers are busy.
+ * <p>
+ * Timeouts start when an attempt starts running, so that checks waiting for a
+ * worker are not mistaken for unreachable shares. At most
+ * {@value #MAX_ATTEMPTS_PER_SHARE} attempts per share run at the same time,
+ * further checks on that share wait with their timeout already running. This
+ * way a dead share cannot occupy all workers.
+ */
+public final class FileSystemProbe {
+
+    static final long DEFAULT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    static final long DEFAULT_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    static final long DEFAULT_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    static final int MAX_ATTEMPTS_PER_SHARE = 2;
+
+    private static final int WORKERS = 8;
+
+    private static final FileSystemProbe SHARED = new FileSystemProbe(
+            ScanningThreads.newExecutor("fxfilechooser-probe", WORKERS), newTimer(), System::nanoTime,
+            DEFAULT_TIMEOUT_NANOS, DEFAULT_HEDGE_DELAY_NANOS, DEFAULT_COOLDOWN_NANOS);
+
+    /**
+     * @return the {@link FileSystemProbe} shared by all choosers.
+     */
+    public static FileSystemProbe shared() {
+        return SHARED;
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "fxfilechooser-probe-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private final Executor io;
+
+    private final ScheduledExecutorService timer;
+
+    private final LongSupplier clock;
+
+    private final long timeoutNanos;
+
+    private final long hedgeDelayNanos;
+
+    private final long cooldownNanos;
+
+    private final Map<Path, Long> unreachableUntil = new ConcurrentHashMap<>();
+
+    private final Map<Path, Share> shares = new ConcurrentHashMap<>();
+
+    private final AtomicInteger submittedAttempts = new AtomicInteger(0);
+
+    FileSystemProbe(Executor io, ScheduledExecutorService timer, LongSupplier clock, long timeoutNanos,
+            long hedgeDelayNanos, long cooldownNanos) {
+        this.io = io;
+        this.timer = timer;
+        this.clock = clock;
+        this.timeoutNanos = timeoutNanos;
+        this.hedgeDelayNanos = hedgeDelayNanos;
+        this.cooldownNanos = cooldownNanos;
+    }
+
+    /**
+     * @param path {@link Path} to check
+     * @return true if the path exists, false if not, if the check timed out or
+     *         the share of the path is known to be unreachable.
+     */
+    public CompletableFuture<Boolean> exists(Path path) {
+        return check(path, () -> Files.exists(path), false);
+    }
+
+    /**
+     * @param path {@link Path} to check
+     * @return true if the path is a directory, false if not, if the check timed
+     *         out or the share of the path is known to be unreachable.
+     */
+    public CompletableFuture<Boolean> isDirectory(Path path) {
+        return check(path, () -> Files.isDirectory(path), false);
+    }
+
+    /**
+     * @param path {@link Path} to check
+     * @return true if the path is a regular file, false if not, if the check
+     *         timed out or the share of the path is known to be unreachable.
+     */
+    public CompletableFuture<Boolean> isRegularFile(Path path) {
+        return check(path, () -> Files.isRegularFile(path), false);
+    }
+
+    /**
+     * Evaluates an arbitrary condition concerning the given path, e.g. a
+     * condition provided by a user defined location, with the same timeout and
+     * cooldown as all other checks.
+     * 
+     * @param path      {@link Path} the condition refers to, used to identify its
+     *                  share
+     * @param condition condition to evaluate, may access the file system
+     * @return result of the condition, false if the check timed out or the share
+     *         of the path is known to be unreachable.
+     */
+    public CompletableFuture<Boolean> evaluate(Path path, BooleanSupplier condition) {
+        return check(path, condition::getAsBoolean, false);
+    }
+
+    /**
+     * Finds the first directory, starting with the given path and then going up
+     * its parents, which exists and whose contents can be listed.
+     * 
+     * @param path {@link Path} to start with
+     * @return the first accessible directory or {@link Optional#empty()} if there
+     *         is none, if the check timed out or the share is known to be
+     *         unreachable.
+     */
+    public CompletableFuture<Optional<Path>> firstAccessibleDirectory(Path path) {
+        return check(path, () -> {
+            Path candidate = path;
+            while (null != candidate && !Files.isDirectory(candidate)) {
+                candidate = candidate.getParent();
+            }
+            /*
+             * On Windows, some shares or drive letters are listed but not available. In
+             * this case File.list() returns null without throwing an exception.
+             */
+            if (null == candidate || null == candidate.toFile().list()) {
+                return Optional.<Path>empty();
+            }
+            return Optional.of(candidate);
+        }, Optional.empty());
+    }
+
+    /**
+     * Waits for the result of a check, never longer than the timeout of this
+     * probe. Prefer the asynchronous methods wherever possible.
+     * 
+     * @param <T>      Type of the result
+     * @param check    result of one of the check methods of this probe
+     * @param fallback result in case the check did not complete
+     * @return result of the check or the fallback
+     */
+    public <T> T await(CompletableFuture<T> check, T fallback) {
+        try {
+            return check.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException | TimeoutException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * @param path {@link Path} to check
+     * @return true when a check on the share (or drive) of the given path timed
+     *         out recently. This method does not access the file system.
+     */
+    public boolean isKnownUnreachable(Path path) {
+        Path share = shareOf(path);
+        Long until = unreachableUntil.get(share);
+        if (null == until)
+            return false;
+        if (clock.getAsLong() - until < 0)
+            return true;
+        unreachableUntil.remove(share, until);
+        return false;
+    }
+
+    private <T> CompletableFuture<T> check(Path path, Supplier<T> check, T fallback) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (isKnownUnreachable(path)) {
+            result.complete(fallback);
+            return result;
+        }
+
+        Share share = shares.computeIfAbsent(shareOf(path), p -> new Share());
+        Check<T> pending = new Check<>(path, share, result, check, fallback);
+        if (share.acquireOrWait(pending)) {
+            pending.submit();
+        } else {
+            pending.startTimers();
+        }
+        return result;
+    }
+
+    /*
+     * One check with its attempts and timers. Each submitted attempt holds one of
+     * the attempts of its share until it has finished.
+     */
+    private final class Check<T> {
+
+        private final Path path;
+
+        private final Share share;
+
+        private final CompletableFuture<T> result;
+
+        private final Supplier<T> check;
+
+        private final T fallback;
+
+        private final AtomicBoolean timed = new AtomicBoolean(false);
+
+        private volatile ScheduledFuture<?> hedge;
+
+        private volatile ScheduledFuture<?> timeout;
+
+        private Check(Path path, Share share, CompletableFuture<T> result, Supplier<T> check, T fallback) {
+            this.path = path;
+            this.share = share;
+            this.result = result;
+            this.check = check;
+            this.fallback = fallback;
+            result.whenComplete((value, error) -> cancelTimers());
+        }
+
+        private void submit() {
+            submittedAttempts.incrementAndGet();
+            try {
+                io.execute(this::run);
+            } catch (RejectedExecutionException rejected) {
+                finished();
+                result.complete(fallback);
+            }
+        }
+
+        private void run() {
+            try {
+                if (result.isDone())
+                    return;
+                startTimers();
+                try {
+                    result.complete(check.get());
+                } catch (RuntimeException error) {
+                    result.complete(fallback);
+                }
+            } finally {
+                finished();
+            }
+        }
+
+        private void finished() {
+            submittedAttempts.decrementAndGet();
+            share.release();
+        }
+
+        private void startTimers() {
+            if (!timed.compareAndSet(false, true))
+                return;
+            hedge = timer.schedule(this::hedge, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            timeout = timer.schedule(() -> timeout(path, result, fallback), timeoutNanos, TimeUnit.NANOSECONDS);
+            if (result.isDone()) {
+                cancelTimers();
+            }
+        }
+
+        private void hedge() {
+            if (!result.isDone() && submittedAttempts.get() < WORKERS && share.tryAcquire()) {
+                submit();
+            }
+        }
+
+        private void cancelTimers() {
+            cancel(hedge);
+            cancel(timeout);
+        }
+
+        private void cancel(ScheduledFuture<?> task) {
+            if (null != task) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /*
+     * Limits the attempts running concurrently on one share. Checks waiting for
+     * an attempt are started in order once an attempt has finished.
+     */
+    private static final class Share {
+
+        private int running = 0;
+
+        private final Deque<Check<?>> waiting = new ArrayDeque<>();
+
+        synchronized boolean tryAcquire() {
+            if (running < MAX_ATTEMPTS_PER_SHARE) {
+                running++;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean acquireOrWait(Check<?> check) {
+            if (tryAcquire())
+                return true;
+            waiting.add(check);
+            return false;
+        }
+
+        void release() {
+            Check<?> next;
+            synchronized (this) {
+                do {
+                    next = waiting.poll();
+                } while (null != next && next.result.isDone());
+                if (null == next) {
+                    running--;
+                    return;
+                }
+            }
+            next.submit();
+        }
+    }
+
+    /*
+     * The share is marked before the result is completed, so that callers which
+     * react on the result already see the share as unreachable.
+     */
+    private <T> void timeout(Path path, CompletableFuture<T> result, T fallback) {
+        if (result.isDone())
+            return;
+
+        Path share = shareOf(path);
+        Long until = Long.valueOf(clock.getAsLong() + cooldownNanos);
+        unreachableUntil.put(share, until);
+        if (result.complete(fallback)) {
+            Logger.getLogger(FileSystemProbe.class.getName()).log(Level.WARNING,
+                    "no response from {0}, treating it as unreachable for {1} s",
+                    new Object[] { share, TimeUnit.NANOSECONDS.toSeconds(cooldownNanos) });
+        } else {
+            unreachableUntil.remove(share, until);
+        }
+    }
+
+    /*
+     * On Windows the root of a path is either the drive or the network share. On
+     * other systems the root is "/", here shares are usually mounted two levels
+     * below the root, e.g. /mnt/share or /Volumes/share.
+     */
+    static Path shareOf(Path path) {
+        Path absolute = path.toAbsolutePath();
+        Path root = absolute.getRoot();
+        if (null == root)
+            return absolute;
+        if (root.toString().length() > 1 || absolute.getNameCount() == 0)
+            return root;
+        return root.resolve(absolute.subpath(0, Math.min(2, absolute.getNameCount())));
+    }
+}
@@ -20,6 +20,7 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Objects;
 
 import javafx.application.Platform;
@@ -34,11 +35,18 @@ final class FileUpdateService extends javafx.concurrent.Service<Integer> impleme
 
     private ObservableList<IndexedPath> pathsToUpdate;
 
+    private ChooserMetrics metrics = new ChooserMetrics();
+
+    private DirectoryCache<List<IndexedPath>> listings = DirectoryCache.disabled();
+
+    private boolean readFromCache = false;
+
     private Thread shutdownThread = null;
 
     public FileUpdateService(Path folderToStart, ObservableList<IndexedPath> paths) {
         setSearchLocation(folderToStart);
         assignTargetCollection(paths);
+        setExecutor(ScanningExecutor.shared());
         registerShutdownHook();
     }
 
@@ -46,23 +54,43 @@ final class FileUpdateService extends javafx.concurrent.Service<Integer> impleme
         pathsToUpdate = Objects.requireNonNull(paths, "Target collection paths must not be null");
     }
 
+    /*
+     * A location which denotes a file is replaced by its directory once the
+     * probe has answered, the scan itself always reads the directory.
+     */
     private void setSearchLocation(Path folderToStart) {
-        rootFolder.setValue(obtainDirectory(folderToStart));
-    }
-
-    private Path obtainDirectory(Path folderToStart) {
+        rootFolder.setValue(folderToStart);
         if (null == folderToStart)
-            return null;
+            return;
 
-        if (folderToStart.toFile().isDirectory())
-            return folderToStart;
-        else
-            return folderToStart.getParent();
+        FileSystemProbe.shared().isDirectory(folderToStart).thenAccept(isDirectory -> {
+            Path parent = folderToStart.getParent();
+            if (!isDirectory.booleanValue() && null != parent) {
+                Platform.runLater(() -> {
+                    if (folderToStart.equals(rootFolder.getValue()))
+                        rootFolder.setValue(parent);
+                });
+            }
+        });
     }
 
     @Override
     protected Task<Integer> createTask() {
-        return new FindFilesTask(rootFolder.getValue(), pathsToUpdate);
+        boolean useCache = readFromCache;
+        readFromCache = false;
+        FindFilesTask task = new FindFilesTask(rootFolder.getValue(), pathsToUpdate, metrics, listings, useCache);
+        task.setScanParentOfFile(true);
+        return task;
+    }
+
+    @Override
+    public void setListingCache(DirectoryCache<List<IndexedPath>> listings) {
+        this.listings = Objects.requireNonNull(listings, "listings must not be null");
+    }
+
+    @Override
+    public void setMetrics(ChooserMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
     }
 
     @Override
@@ -91,12 +119,27 @@ final class FileUpdateService extends javafx.concurrent.Service<Integer> impleme
         this.start();
     }
 
+    @Override
+    public void dispose() {
+        deregisterShutdownHook();
+        if (Platform.isFxApplicationThread()) {
+            cancelUpdate();
+        } else {
+            Platform.runLater(this::cancelUpdate);
+        }
+    }
+
+    /*
+     * Location menu items, pasted paths and the directory chooser call this on
+     * the FX thread, hence the file system is only accessed through the probe.
+     */
     private void restartInDirectory(Path directory) {
-        if (directory.toFile().isDirectory())
-            refreshWhenExists(directory);
-        else
-            attemptRefreshUsingParent(directory);
-
+        FileSystemProbe.shared().isDirectory(directory).thenAccept(isDirectory -> {
+            if (isDirectory.booleanValue())
+                Platform.runLater(() -> setLocationAndRefresh(directory));
+            else
+                attemptRefreshUsingParent(directory);
+        });
     }
 
     private void attemptRefreshUsingParent(Path directory) {
@@ -106,13 +149,20 @@ final class FileUpdateService extends javafx.concurrent.Service<Integer> impleme
     }
 
     protected void refreshWhenExists(Path location) {
-        if (location.toFile().exists())
-            setLocationAndRefresh(location);
+        FileSystemProbe.shared().exists(location).thenAccept(exists -> {
+            if (exists.booleanValue())
+                Platform.runLater(() -> setLocationAndRefresh(location));
+        });
     }
 
+    /*
+     * Changing the location may show a cached listing, whereas an explicit
+     * refresh always scans the directory.
+     */
     private void setLocationAndRefresh(Path location) {
-        setSearchLocation(location);
-        this.refresh();
+        rootFolder.setValue(location);
+        readFromCache = true;
+        this.restart();
     }
 
     private void registerShutdownHook() {
@@ -121,6 +171,21 @@ final class FileUpdateService extends javafx.concurrent.Service<Integer> impleme
         Runtime.getRuntime().addShutdownHook(shutdownThread);
     }
 
+    private void deregisterShutdownHook() {
+        if (null == shutdownThread)
+            return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownThread);
+        } catch (IllegalStateException shutdownInProgress) {
+            // the hook is already running, nothing to deregister anymore
+        }
+        shutdownThread = null;
+    }
+
+    PublicationStatistics getPublicationStatistics() {
+        return this.metrics.getPublicationStatistics();
+    }
+
     protected Thread getShutdownThread() {
         return this.shutdownThread;
     }
@@ -20,8 +20,22 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,16 +46,62 @@ import javafx.concurrent.Task;
 
 final class FindFilesTask extends Task<Integer> {
 
+    /**
+     * Maximum number of concurrent attribute reads when running on virtual
+     * threads.
+     */
+    static final int MAX_PENDING_READS = 1024;
+
     private final ObservableList<IndexedPath> pathsToUpdate;
 
     private final Path directory;
 
     private final DoubleProperty duration;
 
+    private final ChooserMetrics metrics;
+
+    private final DirectoryCache<List<IndexedPath>> listings;
+
+    private final boolean readFromCache;
+
+    private boolean scanParentOfFile = false;
+
     public FindFilesTask(Path searchFolder, ObservableList<IndexedPath> listOfPaths) {
+        this(searchFolder, listOfPaths, new ChooserMetrics());
+    }
+
+    FindFilesTask(Path searchFolder, ObservableList<IndexedPath> listOfPaths, ChooserMetrics metrics) {
+        this(searchFolder, listOfPaths, metrics, DirectoryCache.disabled(), false);
+    }
+
+    /**
+     * @param metrics       {@link ChooserMetrics} receiving scan durations,
+     *                      attribute read latencies and cache hits.
+     * @param listings      Cache of file listings, complete scans are stored
+     *                      there.
+     * @param readFromCache When true, a valid cached listing is shown instead of
+     *                      scanning the directory. An explicit refresh must always
+     *                      scan.
+     */
+    FindFilesTask(Path searchFolder, ObservableList<IndexedPath> listOfPaths, ChooserMetrics metrics,
+            DirectoryCache<List<IndexedPath>> listings, boolean readFromCache) {
         this.pathsToUpdate = Objects.requireNonNull(listOfPaths, "listOfPaths must not be null");
         this.directory = searchFolder;
         this.duration = new SimpleDoubleProperty(0d);
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        this.listings = Objects.requireNonNull(listings, "listings must not be null");
+        this.readFromCache = readFromCache;
+    }
+
+    /**
+     * By default a file given as search folder results in an empty listing. With
+     * this option the directory of the file is scanned instead, which is decided
+     * on the worker thread as the file may be located on an unreachable share.
+     * 
+     * @param scanParentOfFile When true, the directory of a file is scanned.
+     */
+    void setScanParentOfFile(boolean scanParentOfFile) {
+        this.scanParentOfFile = scanParentOfFile;
     }
 
     /**
@@ -58,7 +118,33 @@ final class FindFilesTask extends Task<Integer> {
             return 0;
         }
 
-        File[] files = directory.toAbsolutePath().toFile().listFiles();
+        RecordedPhase scan = PerformanceEvents.directoryScan(directory);
+        int entries = 0;
+        try {
+            entries = scanDirectory(start);
+        } finally {
+            scan.end(entries);
+        }
+        return entries;
+    }
+
+    private int scanDirectory(long start) throws Exception {
+        Path folder = scanParentOfFile ? directoryOf(directory) : directory;
+        if (null == folder) {
+            return 0;
+        }
+        Path key = FileListingCache.keyOf(folder);
+        if (readFromCache) {
+            Optional<List<IndexedPath>> cached = listings.get(key);
+            metrics.listingRequested(cached.isPresent());
+            if (cached.isPresent()) {
+                return publishCached(cached.get(), start);
+            }
+        }
+        Optional<FileTime> lastModified = listings.isEnabled() ? DirectoryCache.lastModified(key)
+                : Optional.empty();
+
+        File[] files = folder.toAbsolutePath().toFile().listFiles();
         if (null == files) {
             return 0;
         }
@@ -68,7 +154,13 @@ final class FindFilesTask extends Task<Integer> {
 
         updateProgress(0, files.length);
         int progressIntervall = getProgressInterval(files.length);
-        RefreshBuffer buffer = RefreshBuffer.get(this, files.length, pathsToUpdate);
+        RefreshBuffer buffer = RefreshBuffer.get(this, files.length, pathsToUpdate, metrics.getPublicationStatistics());
+        List<IndexedPath> listing = lastModified.isPresent() ? new ArrayList<>() : null;
+        if (ScanningThreads.areVirtual()) {
+            indexConcurrently(files, buffer, ScanningExecutor.shared(), start, listing);
+            storeListing(key, lastModified, listing);
+            return files.length;
+        }
         for (int f = 0; f < files.length; f++) {
             if (isCancelled()) {
                 updateProgress(f, files.length);
@@ -79,16 +171,122 @@ final class FindFilesTask extends Task<Integer> {
             if (f % progressIntervall == 0) {
                 updateProgress(f + 1, files.length);
             }
+            long readStart = System.nanoTime();
             if (files[f].isFile()) {
-                buffer.update(files[f].toPath());
+                IndexedPath indexed = IndexedPath.valueOf(files[f].toPath());
+                metrics.attributesRead(System.nanoTime() - readStart);
+                buffer.update(indexed);
+                if (null != listing) {
+                    listing.add(indexed);
+                }
+            } else {
+                metrics.attributesRead(System.nanoTime() - readStart);
             }
         }
         buffer.flush();
         updateProgress(files.length, files.length);
         duration.set((System.currentTimeMillis() - start) / 1E3);
+        storeListing(key, lastModified, listing);
         return files.length;
     }
 
+    private static Path directoryOf(Path location) {
+        if (Files.isDirectory(location))
+            return location;
+        return location.getParent();
+    }
+
+    private int publishCached(List<IndexedPath> cached, long start) {
+        updateProgress(0, cached.size());
+        RefreshBuffer buffer = RefreshBuffer.get(this, cached.size(), pathsToUpdate, metrics.getPublicationStatistics());
+        for (IndexedPath file : cached) {
+            if (isCancelled())
+                break;
+            buffer.update(file);
+        }
+        buffer.flush();
+        updateProgress(cached.size(), cached.size());
+        duration.set((System.currentTimeMillis() - start) / 1E3);
+        return cached.size();
+    }
+
+    /*
+     * Only complete scans are stored, a cancelled scan would otherwise hide files
+     * until the directory is modified again.
+     */
+    private void storeListing(Path key, Optional<FileTime> lastModified, List<IndexedPath> listing) {
+        if (null == listing || isCancelled())
+            return;
+        lastModified.ifPresent(time -> listings.put(key, time, Collections.unmodifiableList(listing)));
+    }
+
+    /*
+     * Each file is checked and indexed by its own task, so that slow attribute
+     * reads (e.g. on network shares) overlap. Results are consumed in directory
+     * order by this thread, so the RefreshBuffer is still used by one thread
+     * only.
+     */
+    void indexConcurrently(File[] files, RefreshBuffer buffer, Executor executor, long start) {
+        indexConcurrently(files, buffer, executor, start, null);
+    }
+
+    private void indexConcurrently(File[] files, RefreshBuffer buffer, Executor executor, long start,
+            List<IndexedPath> listing) {
+        int progressIntervall = getProgressInterval(files.length);
+        Queue<FutureTask<IndexedPath>> pending = new ArrayDeque<>(MAX_PENDING_READS);
+        int submitted = 0;
+        int consumed = 0;
+        while (consumed < files.length && !isCancelled()) {
+            while (submitted < files.length && pending.size() < MAX_PENDING_READS) {
+                Path file = files[submitted++].toPath();
+                FutureTask<IndexedPath> read = new FutureTask<>(() -> readRegularFile(file));
+                executor.execute(read);
+                pending.add(read);
+            }
+            IndexedPath indexed = resultOf(pending.remove());
+            if (null != indexed) {
+                buffer.update(indexed);
+                if (null != listing) {
+                    listing.add(indexed);
+                }
+            }
+            consumed++;
+            if (consumed % progressIntervall == 0) {
+                updateProgress(consumed, files.length);
+            }
+        }
+        // reads not yet started are skipped, running reads are interrupted
+        pending.forEach(read -> read.cancel(true));
+        buffer.flush();
+        updateProgress(isCancelled() ? consumed : files.length, files.length);
+        duration.set((System.currentTimeMillis() - start) / 1E3);
+    }
+
+    private static IndexedPath resultOf(FutureTask<IndexedPath> read) {
+        try {
+            return read.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private IndexedPath readRegularFile(Path file) {
+        long readStart = System.nanoTime();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            metrics.attributesRead(System.nanoTime() - readStart);
+            if (attributes.isRegularFile()) {
+                return IndexedPath.valueOf(file, attributes);
+            }
+        } catch (IOException e) {
+            // not accessible anymore, the file is skipped in this case
+        }
+        return null;
+    }
+
     @Override
     protected void running() {
         super.running();
@@ -99,6 +297,7 @@ final class FindFilesTask extends Task<Integer> {
     @Override
     protected void succeeded() {
         super.succeeded();
+        metrics.scanFinished(getValue(), duration.get());
         Logger.getLogger(FindFilesTask.class.getName()).log(Level.INFO,
                 "with {0} files out of {1} entries after {2} sec",
                 new Object[] {pathsToUpdate.size(), getValue(), duration.get()});
@@ -107,6 +306,7 @@ final class FindFilesTask extends Task<Integer> {
     @Override
     protected void cancelled() {
         super.cancelled();
+        metrics.scanFinished(pathsToUpdate.size(), duration.get());
         Logger.getLogger(FindFilesTask.class.getName()).log(Level.INFO, "with {0} files after {1} seconds!",
                 new Object[] {pathsToUpdate.size(), duration.get()});
     }
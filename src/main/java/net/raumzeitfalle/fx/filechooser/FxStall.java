@@ -0,0 +1,91 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One period in which the JavaFX application thread did not process events
+ * for longer than the threshold of the {@link FxStallDetector}, together with
+ * the stack of the JavaFX application thread captured while it was blocked.
+ */
+public final class FxStall {
+
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "javafx.", "com.sun.", "sun.", "jdk."};
+
+    private final long durationNanos;
+
+    private final StackTraceElement[] stackTrace;
+
+    FxStall(long durationNanos, StackTraceElement[] stackTrace) {
+        this.durationNanos = durationNanos;
+        this.stackTrace = stackTrace.clone();
+    }
+
+    /**
+     * @return time in nanoseconds the JavaFX application thread was blocked.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * @return stack of the JavaFX application thread once the threshold was
+     *         exceeded, empty if it could not be captured.
+     */
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    /**
+     * @return the innermost frame of application or library code (not of the
+     *         JDK or of JavaFX), which is usually the operation which blocked
+     *         the JavaFX application thread.
+     */
+    public String getOperation() {
+        return operationOf(stackTrace);
+    }
+
+    static String operationOf(StackTraceElement[] stackTrace) {
+        return Arrays.stream(stackTrace)
+                     .filter(frame -> !isPlatformFrame(frame))
+                     .findFirst()
+                     .map(StackTraceElement::toString)
+                     .orElse(stackTrace.length > 0 ? stackTrace[0].toString() : "unknown");
+    }
+
+    private static boolean isPlatformFrame(StackTraceElement frame) {
+        for (String platform : PLATFORM_PACKAGES) {
+            if (frame.getClassName().startsWith(platform))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FxStall [duration=%s ms, operation=%s]", getDurationMillis(), getOperation());
+    }
+}
@@ -0,0 +1,220 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.application.Platform;
+
+/**
+ * Watchdog which detects when the JavaFX application thread is blocked, e.g.
+ * by sorting or filtering a large file list or by checking an unreachable
+ * location.
+ * <p>
+ * A watchdog thread posts a heartbeat to the JavaFX application thread and
+ * measures how long it takes until the heartbeat is processed. As pulses are
+ * processed by the same thread, this latency is a lower bound of the
+ * pulse-to-pulse latency while the thread is blocked. Once a heartbeat is
+ * overdue by more than the threshold, the stack of the JavaFX application
+ * thread is captured and logged. When the thread has recovered, the stall is
+ * reported to all listeners, e.g. to the {@link ChooserMetrics} of the
+ * choosers using this detector.
+ * <p>
+ * The detector is optional and not running by default. One detector can be
+ * shared by all choosers of an application.
+ */
+public final class FxStallDetector {
+
+    private static final Logger LOGGER = Logger.getLogger(FxStallDetector.class.getName());
+
+    private static final long MIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Starts a detector with its own watchdog thread.
+     * 
+     * @param threshold Time the JavaFX application thread may be blocked before
+     *                  a stall is reported, e.g. 200 milliseconds.
+     * @param unit      {@link TimeUnit} of the threshold
+     * @return running {@link FxStallDetector}
+     */
+    public static FxStallDetector start(long threshold, TimeUnit unit) {
+        FxStallDetector detector = new FxStallDetector(unit.toNanos(threshold), Platform::runLater, System::nanoTime);
+        detector.startWatchdog();
+        return detector;
+    }
+
+    private final long thresholdNanos;
+
+    private final Executor fxThread;
+
+    private final LongSupplier clock;
+
+    private final AtomicReference<Heartbeat> outstanding = new AtomicReference<>();
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+
+    private final AtomicLong stalls = new AtomicLong(0);
+
+    private final List<Consumer<FxStall>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Thread applicationThread = null;
+
+    private ScheduledExecutorService watchdog = null;
+
+    FxStallDetector(long thresholdNanos, Executor fxThread, LongSupplier clock) {
+        if (thresholdNanos <= 0)
+            throw new IllegalArgumentException("threshold must be positive");
+        this.thresholdNanos = thresholdNanos;
+        this.fxThread = Objects.requireNonNull(fxThread, "fxThread must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+    }
+
+    private synchronized void startWatchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "fxfilechooser-stall-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        long interval = Math.max(MIN_INTERVAL_NANOS, thresholdNanos / 4);
+        executor.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.NANOSECONDS);
+        watchdog = executor;
+    }
+
+    /**
+     * Stops the watchdog thread. Stalls in progress are not reported anymore.
+     */
+    public synchronized void stop() {
+        if (null != watchdog) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return null != watchdog;
+    }
+
+    /**
+     * @param listener Called on the JavaFX application thread once it has
+     *                 recovered from a stall.
+     */
+    public void addListener(Consumer<FxStall> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener must not be null"));
+    }
+
+    public void removeListener(Consumer<FxStall> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return latencies of all heartbeats, i.e. how long events waited for the
+     *         JavaFX application thread.
+     */
+    public LatencyDistribution getLatencies() {
+        return latencies.toDistribution();
+    }
+
+    /**
+     * @return number of stalls detected so far.
+     */
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /*
+     * Runs on the watchdog thread: posts a new heartbeat unless one is still
+     * outstanding, captures the stack once an outstanding heartbeat is overdue.
+     */
+    void check() {
+        Heartbeat heartbeat = outstanding.get();
+        long now = clock.getAsLong();
+        if (null == heartbeat) {
+            outstanding.set(new Heartbeat(now));
+            fxThread.execute(this::beat);
+            return;
+        }
+        if (null == heartbeat.stackTrace && now - heartbeat.sent >= thresholdNanos) {
+            Thread thread = applicationThread;
+            StackTraceElement[] stack = null != thread ? thread.getStackTrace() : new StackTraceElement[0];
+            heartbeat.stackTrace = stack;
+            logBlocked(now - heartbeat.sent, stack);
+        }
+    }
+
+    /*
+     * Runs on the JavaFX application thread.
+     */
+    private void beat() {
+        applicationThread = Thread.currentThread();
+        Heartbeat heartbeat = outstanding.getAndSet(null);
+        if (null == heartbeat)
+            return;
+        long latency = clock.getAsLong() - heartbeat.sent;
+        latencies.record(latency);
+        StackTraceElement[] stack = heartbeat.stackTrace;
+        if (null == stack)
+            return;
+        stalls.incrementAndGet();
+        FxStall stall = new FxStall(latency, stack);
+        LOGGER.log(Level.INFO, "JavaFX application thread recovered after {0} ms in {1}",
+                new Object[] {stall.getDurationMillis(), stall.getOperation()});
+        for (Consumer<FxStall> listener : listeners) {
+            listener.accept(stall);
+        }
+    }
+
+    private void logBlocked(long blockedNanos, StackTraceElement[] stack) {
+        if (!LOGGER.isLoggable(Level.WARNING))
+            return;
+        Throwable trace = new Throwable("stack of JavaFX application thread");
+        trace.setStackTrace(stack);
+        String message = String.format("JavaFX application thread blocked for more than %s ms in %s",
+                TimeUnit.NANOSECONDS.toMillis(blockedNanos), FxStall.operationOf(stack));
+        LOGGER.log(Level.WARNING, message, trace);
+    }
+
+    private static final class Heartbeat {
+
+        private final long sent;
+
+        private volatile StackTraceElement[] stackTrace = null;
+
+        private Heartbeat(long sent) {
+            this.sent = sent;
+        }
+    }
+}
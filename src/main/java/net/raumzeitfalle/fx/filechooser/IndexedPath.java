@@ -45,8 +45,15 @@ final class IndexedPath {
         return new IndexedPath(path, timestamp);
     }
 
+    static IndexedPath valueOf(Path path, BasicFileAttributes attributes) {
+        return new IndexedPath(path, getTimestamp(attributes));
+    }
+
     private static FileTime getTimestamp(Path path) throws IOException {
-        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return getTimestamp(Files.readAttributes(path, BasicFileAttributes.class));
+    }
+
+    private static FileTime getTimestamp(BasicFileAttributes attributes) {
         FileTime lastModified = attributes.lastModifiedTime();
         FileTime created = attributes.creationTime();
         if (lastModified.compareTo(created) > 0) {
@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Arrays;
+
+/**
+ * Immutable histogram of latencies, e.g. of file attribute reads or of list
+ * filter updates.
+ * <p>
+ * Latencies are counted in buckets with power of two upper bounds, starting
+ * with 1 microsecond. Percentiles are therefore approximations, the reported
+ * value is the upper bound of the bucket containing the percentile.
+ */
+public final class LatencyDistribution {
+
+    /**
+     * Number of buckets, the last bucket counts all latencies above
+     * {@code 2^(BUCKETS-2)} microseconds (about 18 minutes).
+     */
+    public static final int BUCKETS = 32;
+
+    private static final LatencyDistribution EMPTY = new LatencyDistribution(new long[BUCKETS]);
+
+    static LatencyDistribution empty() {
+        return EMPTY;
+    }
+
+    static int bucketOf(long nanos) {
+        long micros = Math.max(0, nanos) / 1_000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private final long[] counts;
+
+    private final long count;
+
+    LatencyDistribution(long[] counts) {
+        this.counts = Arrays.copyOf(counts, BUCKETS);
+        this.count = Arrays.stream(this.counts).sum();
+    }
+
+    /**
+     * @return number of recorded latencies.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param bucket index between 0 and {@link #BUCKETS} - 1
+     * @return number of recorded latencies in this bucket.
+     */
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * @param bucket index between 0 and {@link #BUCKETS} - 1
+     * @return exclusive upper bound of the bucket in nanoseconds,
+     *         {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getUpperBoundNanos(int bucket) {
+        if (bucket < 0 || bucket >= BUCKETS)
+            throw new IndexOutOfBoundsException("bucket must be between 0 and " + (BUCKETS - 1));
+        if (bucket == BUCKETS - 1)
+            return Long.MAX_VALUE;
+        return (1L << bucket) * 1_000;
+    }
+
+    /**
+     * @param percentile value between 0 and 100, e.g. 99 for the 99th percentile.
+     * @return upper bound in nanoseconds of the bucket containing the percentile
+     *         or 0 if nothing has been recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank)
+                return getUpperBoundNanos(bucket);
+        }
+        return getUpperBoundNanos(BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyDistribution [count=%s, p50=%s ns, p99=%s ns]", count,
+                getPercentileNanos(50), getPercentileNanos(99));
+    }
+}
@@ -0,0 +1,43 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies from any number of threads into the buckets of a
+ * {@link LatencyDistribution}.
+ */
+final class LatencyRecorder {
+
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyDistribution.BUCKETS);
+
+    void record(long nanos) {
+        counts.incrementAndGet(LatencyDistribution.bucketOf(nanos));
+    }
+
+    LatencyDistribution toDistribution() {
+        long[] values = new long[counts.length()];
+        for (int bucket = 0; bucket < values.length; bucket++) {
+            values[bucket] = counts.get(bucket);
+        }
+        return new LatencyDistribution(values);
+    }
+}
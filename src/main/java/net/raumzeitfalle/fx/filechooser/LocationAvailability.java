@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import net.raumzeitfalle.fx.filechooser.locations.Location;
+
+/**
+ * Determines in background whether {@link Location}s are available. Results are
+ * cached for a while, so that locations shown in several places or menus which
+ * are opened repeatedly do not cause repeated file system access. Concurrent
+ * requests for the same location share one check.
+ */
+final class LocationAvailability {
+
+    static final long DEFAULT_TIME_TO_LIVE_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private static final LocationAvailability SHARED = new LocationAvailability(FileSystemProbe.shared(),
+            System::nanoTime, DEFAULT_TIME_TO_LIVE_NANOS);
+
+    static LocationAvailability shared() {
+        return SHARED;
+    }
+
+    private final FileSystemProbe probe;
+
+    private final LongSupplier clock;
+
+    private final long timeToLiveNanos;
+
+    private final Map<Location, Check> checks = new ConcurrentHashMap<>();
+
+    LocationAvailability(FileSystemProbe probe, LongSupplier clock, long timeToLiveNanos) {
+        this.probe = probe;
+        this.clock = clock;
+        this.timeToLiveNanos = timeToLiveNanos;
+    }
+
+    /**
+     * @param location {@link Location} to check
+     * @return true if the location exists, false if not or if the check did not
+     *         complete in time.
+     */
+    CompletableFuture<Boolean> check(Location location) {
+        return checks.compute(location, (key, previous) -> {
+            if (null != previous && previous.isValid())
+                return previous;
+            return new Check(probe.evaluate(key.getPath(), key::exists), clock.getAsLong());
+        }).result;
+    }
+
+    void invalidate(Location location) {
+        checks.remove(location);
+    }
+
+    private final class Check {
+
+        private final CompletableFuture<Boolean> result;
+
+        private final long started;
+
+        private Check(CompletableFuture<Boolean> result, long started) {
+            this.result = result;
+            this.started = started;
+        }
+
+        private boolean isValid() {
+            return !result.isDone() || clock.getAsLong() - started < timeToLiveNanos;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import javafx.application.Platform;
+import javafx.scene.control.MenuItem;
+import net.raumzeitfalle.fx.filechooser.locations.Location;
+
+/*
+ * Whether a location exists is checked in background, as this can take long
+ * for locations on unavailable network shares. Until the check completes, the
+ * item is disabled and shown as being checked.
+ */
+class LocationMenuItem extends MenuItem {
+
+    static final String CHECKING_STYLE_CLASS = "location-checking";
+
+    static final String UNAVAILABLE_STYLE_CLASS = "location-unavailable";
+
+    private final Location location;
+
+    private final LocationAvailability availability;
+
+    LocationMenuItem(Location location, LocationAvailability availability) {
+        this.location = Objects.requireNonNull(location, "Given location instance must never be null.");
+        this.availability = availability;
+        refresh();
+    }
+
+    /**
+     * Checks again whether the location is available, unless a recent result is
+     * known. Must be called on the JavaFX application thread.
+     */
+    void refresh() {
+        CompletableFuture<Boolean> check = availability.check(location);
+        if (check.isDone()) {
+            showAvailability(check.join());
+            return;
+        }
+        setText(location.getName() + " (checking...)");
+        setDisable(true);
+        getStyleClass().remove(UNAVAILABLE_STYLE_CLASS);
+        if (!getStyleClass().contains(CHECKING_STYLE_CLASS)) {
+            getStyleClass().add(CHECKING_STYLE_CLASS);
+        }
+        check.thenAccept(available -> Platform.runLater(() -> showAvailability(available)));
+    }
+
+    private void showAvailability(boolean available) {
+        setText(location.getName());
+        setDisable(!available);
+        getStyleClass().removeAll(CHECKING_STYLE_CLASS, UNAVAILABLE_STYLE_CLASS);
+        if (!available) {
+            getStyleClass().add(UNAVAILABLE_STYLE_CLASS);
+        }
+    }
+
+    public boolean matchesLocation(Location otherLocation) {
+        return this.location.equals(otherLocation);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LocationMenuItem)) return false;
+        LocationMenuItem that = (LocationMenuItem) o;
+        return location.equals(that.location);
+    }
+
+    @Override
+    public int hashCode() {
+        return location.hashCode() + 13;
+    }
+}
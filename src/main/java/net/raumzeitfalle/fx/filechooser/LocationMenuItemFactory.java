@@ -23,50 +23,27 @@ import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
-import javafx.scene.control.MenuItem;
 import net.raumzeitfalle.fx.filechooser.locations.Location;
 
 class LocationMenuItemFactory implements Function<Location,LocationMenuItem> {
 
     private final Consumer<Location> pathConsumer;
 
+    private final LocationAvailability availability;
+
     LocationMenuItemFactory(Consumer<Location> pathConsumer) {
+        this(pathConsumer, LocationAvailability.shared());
+    }
+
+    LocationMenuItemFactory(Consumer<Location> pathConsumer, LocationAvailability availability) {
         this.pathConsumer = Objects.requireNonNull(pathConsumer, "pathConsumer must not be null.");
+        this.availability = Objects.requireNonNull(availability, "availability must not be null.");
     }
 
     @Override
     public LocationMenuItem apply(Location location) {
-        LocationMenuItem item = new LocationMenuItem(location);
+        LocationMenuItem item = new LocationMenuItem(location, availability);
         item.setOnAction(e -> Invoke.later(location, pathConsumer));
         return item;
     }
 }
-
-class LocationMenuItem extends MenuItem {
-
-    private final Location location;
-
-    LocationMenuItem(Location location) {
-        this.location = Objects.requireNonNull(location, "Given location instance must never be null.");
-        setText(location.getName());
-        setDisable(!location.exists());
-    }
-
-    public boolean matchesLocation(Location otherLocation) {
-        return this.location.equals(otherLocation);
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof LocationMenuItem)) return false;
-        LocationMenuItem that = (LocationMenuItem) o;
-        return location.equals(that.location);
-    }
-
-    @Override
-    public int hashCode() {
-        return location.hashCode() + 13;
-    }
-}
-
@@ -0,0 +1,240 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.raumzeitfalle.fx.filechooser.locations.Location;
+import net.raumzeitfalle.fx.filechooser.locations.LocationHistory;
+
+/**
+ * Reads the most used locations into the file listing cache, ranked by the
+ * frecency of a {@link LocationHistory} if one is given. Prefetching runs
+ * on a single low priority thread and stops as soon as the I/O budget of the
+ * {@link PrefetchPolicy} is used up.
+ * <p>
+ * Whether a location needs to be read is checked through the
+ * {@link FileSystemProbe}, so locations on unreachable shares are skipped
+ * within its timeout and during its cooldown. Reading a location stops when
+ * its share becomes unreachable or the read time of the policy has elapsed.
+ */
+final class LocationPrefetcher {
+
+    private static final ExecutorService PREFETCH_THREAD = createPrefetchThread();
+
+    private static ExecutorService createPrefetchThread() {
+        ThreadPoolExecutor thread = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread prefetch = new Thread(r, "fxfilechooser-prefetch");
+                    prefetch.setDaemon(true);
+                    prefetch.setPriority(Thread.MIN_PRIORITY);
+                    return prefetch;
+                });
+        thread.allowCoreThreadTimeOut(true);
+        return thread;
+    }
+
+    private final PrefetchPolicy policy;
+
+    private final DirectoryCache<List<IndexedPath>> listings;
+
+    private final FileSystemProbe probe;
+
+    private final Map<Location, AtomicInteger> uses = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private final AtomicReference<List<Location>> pending = new AtomicReference<>(Collections.emptyList());
+
+    private volatile LocationHistory history = null;
+
+    private volatile boolean cancelled = false;
+
+    LocationPrefetcher(PrefetchPolicy policy, DirectoryCache<List<IndexedPath>> listings, FileSystemProbe probe) {
+        this.policy = policy;
+        this.listings = listings;
+        this.probe = probe;
+    }
+
+    /**
+     * @param history {@link LocationHistory} whose most frequently used
+     *                directories are prefetched first, or null to rank by uses
+     *                of this prefetcher only.
+     */
+    void rankBy(LocationHistory history) {
+        this.history = history;
+    }
+
+    void recordUse(Location location) {
+        uses.computeIfAbsent(location, l -> new AtomicInteger(0)).incrementAndGet();
+    }
+
+    int getUses(Location location) {
+        AtomicInteger count = uses.get(location);
+        return null == count ? 0 : count.get();
+    }
+
+    /**
+     * Schedules a prefetch run for the given locations. When a run is already
+     * waiting to be executed, no further run is scheduled but the waiting run
+     * uses the given locations.
+     * 
+     * @param locations Configured {@link Location}s
+     */
+    void prefetch(Collection<Location> locations) {
+        if (cancelled || !policy.isEnabled())
+            return;
+        pending.set(new ArrayList<>(locations));
+        if (scheduled.compareAndSet(false, true)) {
+            PREFETCH_THREAD.execute(() -> {
+                scheduled.set(false);
+                prefetchNow(pending.get());
+            });
+        }
+    }
+
+    /**
+     * @param locations Configured {@link Location}s
+     * @return number of locations read into the cache
+     */
+    int prefetchNow(List<Location> locations) {
+        int budget = policy.getMaxEntriesPerRun();
+        int prefetched = 0;
+        for (Location location : rank(locations)) {
+            if (cancelled || budget <= 0)
+                break;
+            Path directory = FileListingCache.keyOf(location.getPath());
+            if (!probe.await(probe.evaluate(directory, () -> needsRead(directory)), false).booleanValue())
+                continue;
+            int limit = Math.min(budget, policy.getMaxEntriesPerLocation());
+            Listing listing = read(directory, limit);
+            budget -= listing.entries;
+            if (listing.isComplete()) {
+                prefetched++;
+            }
+        }
+        return prefetched;
+    }
+
+    /*
+     * Locations in the order of their frecency in the history first, then the
+     * most used ones. The sort is stable so that locations used equally often
+     * keep their configured order.
+     */
+    List<Location> rank(List<Location> locations) {
+        Map<Path, Integer> frecency = frecencyRanks();
+        List<Location> ranked = new ArrayList<>(locations);
+        ranked.sort(Comparator.comparingInt((Location location) -> frecency.getOrDefault(
+                FileListingCache.keyOf(location.getPath()), Integer.MAX_VALUE))
+                              .thenComparing(Comparator.comparingInt(this::getUses).reversed()));
+        return ranked.subList(0, Math.min(ranked.size(), policy.getMaxLocations()));
+    }
+
+    private Map<Path, Integer> frecencyRanks() {
+        LocationHistory ranking = history;
+        if (null == ranking)
+            return Collections.emptyMap();
+        Map<Path, Integer> ranks = new HashMap<>();
+        for (Location location : ranking.getTopLocations(policy.getMaxLocations())) {
+            ranks.putIfAbsent(FileListingCache.keyOf(location.getPath()), ranks.size());
+        }
+        return ranks;
+    }
+
+    private boolean needsRead(Path directory) {
+        return Files.isDirectory(directory) && !listings.contains(directory);
+    }
+
+    private Listing read(Path directory, int maxEntries) {
+        long deadline = System.nanoTime() + policy.getMaxReadNanos();
+        Optional<FileTime> lastModified = DirectoryCache.lastModified(directory);
+        List<IndexedPath> files = new ArrayList<>();
+        int entries = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                if (cancelled || entries >= maxEntries || System.nanoTime() - deadline > 0
+                        || probe.isKnownUnreachable(directory))
+                    return new Listing(entries, false);
+                entries++;
+                BasicFileAttributes attributes = readAttributes(entry);
+                if (null != attributes && attributes.isRegularFile()) {
+                    files.add(IndexedPath.valueOf(entry, attributes));
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            Logger.getLogger(LocationPrefetcher.class.getName()).log(Level.FINE, "failed to prefetch " + directory,
+                    e);
+            return new Listing(entries, false);
+        }
+        lastModified.ifPresent(time -> listings.put(directory, time, Collections.unmodifiableList(files)));
+        return new Listing(entries, lastModified.isPresent());
+    }
+
+    private static BasicFileAttributes readAttributes(Path entry) {
+        try {
+            return Files.readAttributes(entry, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    private static final class Listing {
+
+        private final int entries;
+
+        private final boolean complete;
+
+        private Listing(int entries, boolean complete) {
+            this.entries = entries;
+            this.complete = complete;
+        }
+
+        private boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+/**
+ * Immutable copy of the values of {@link ChooserMetrics} at one point in time,
+ * intended to be passed on to the monitoring of the host application.
+ * <p>
+ * Scan values describe the most recent scan, all other values are accumulated
+ * since the chooser has been created.
+ */
+public final class MetricsSnapshot {
+
+    private final long timestamp;
+
+    private final double scanDuration;
+
+    private final int scannedEntries;
+
+    private final LatencyDistribution attributeReads;
+
+    private final long publishedItems;
+
+    private final long discardedItems;
+
+    private final long publications;
+
+    private final long lastPublicationLagNanos;
+
+    private final long averagePublicationLagNanos;
+
+    private final long maxPublicationLagNanos;
+
+    private final LatencyDistribution filterLatencies;
+
+    private final long cacheHits;
+
+    private final long cacheMisses;
+
+    private final LatencyDistribution fxThreadLatencies;
+
+    private final long fxThreadStalls;
+
+    MetricsSnapshot(long timestamp, double scanDuration, int scannedEntries, LatencyDistribution attributeReads,
+            PublicationStatistics publicationStatistics, LatencyDistribution filterLatencies, long cacheHits,
+            long cacheMisses, LatencyDistribution fxThreadLatencies, long fxThreadStalls) {
+        this.timestamp = timestamp;
+        this.scanDuration = scanDuration;
+        this.scannedEntries = scannedEntries;
+        this.attributeReads = attributeReads;
+        this.publishedItems = publicationStatistics.getPublishedItems();
+        this.discardedItems = publicationStatistics.getDiscardedItems();
+        this.publications = publicationStatistics.getPublications();
+        this.lastPublicationLagNanos = publicationStatistics.getLastLatencyNanos();
+        this.averagePublicationLagNanos = publicationStatistics.getAverageLatencyNanos();
+        this.maxPublicationLagNanos = publicationStatistics.getMaxLatencyNanos();
+        this.filterLatencies = filterLatencies;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.fxThreadLatencies = fxThreadLatencies;
+        this.fxThreadStalls = fxThreadStalls;
+    }
+
+    /**
+     * @return time of this snapshot in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return duration of the most recent scan in seconds.
+     */
+    public double getScanDuration() {
+        return scanDuration;
+    }
+
+    /**
+     * @return number of directory entries processed by the most recent scan.
+     */
+    public int getScannedEntries() {
+        return scannedEntries;
+    }
+
+    /**
+     * @return directory entries per second of the most recent scan.
+     */
+    public double getEntriesPerSecond() {
+        return ChooserMetrics.entriesPerSecond(scannedEntries, scanDuration);
+    }
+
+    /**
+     * @return latencies of reading the attributes of a single directory entry.
+     */
+    public LatencyDistribution getAttributeReads() {
+        return attributeReads;
+    }
+
+    /**
+     * @return number of files published to the JavaFX application thread.
+     */
+    public long getPublishedItems() {
+        return publishedItems;
+    }
+
+    /**
+     * @return number of files discarded because a scan was cancelled while the
+     *         JavaFX application thread was behind.
+     */
+    public long getDiscardedItems() {
+        return discardedItems;
+    }
+
+    /**
+     * @return number of updates of the file list on the JavaFX application
+     *         thread.
+     */
+    public long getPublications() {
+        return publications;
+    }
+
+    /**
+     * @return time in nanoseconds between collecting the first file of the most
+     *         recent update and its publication on the JavaFX application thread.
+     */
+    public long getLastPublicationLagNanos() {
+        return lastPublicationLagNanos;
+    }
+
+    public long getAveragePublicationLagNanos() {
+        return averagePublicationLagNanos;
+    }
+
+    public long getMaxPublicationLagNanos() {
+        return maxPublicationLagNanos;
+    }
+
+    /**
+     * @return latencies of applying a filter to the file list.
+     */
+    public LatencyDistribution getFilterLatencies() {
+        return filterLatencies;
+    }
+
+    /**
+     * @return number of directory changes served from the file listing cache.
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return number of directory changes which required a scan although the
+     *         file listing cache was consulted.
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * @return share of cache hits between 0 and 1, 0 if the cache has not been
+     *         consulted yet.
+     */
+    public double getCacheHitRate() {
+        return ChooserMetrics.hitRate(cacheHits, cacheMisses);
+    }
+
+    /**
+     * @return latencies of the JavaFX application thread measured by the
+     *         observed {@link FxStallDetector}, empty without detector.
+     */
+    public LatencyDistribution getFxThreadLatencies() {
+        return fxThreadLatencies;
+    }
+
+    /**
+     * @return number of stalls of the JavaFX application thread reported while
+     *         the chooser observed an {@link FxStallDetector}.
+     */
+    public long getFxThreadStalls() {
+        return fxThreadStalls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "MetricsSnapshot [scanDuration=%s s, scannedEntries=%s, attributeReads=%s, publications=%s, lastPublicationLag=%s ns, filterLatencies=%s, cacheHitRate=%s, fxThreadStalls=%s]",
+                scanDuration, scannedEntries, attributeReads, publications, lastPublicationLagNanos, filterLatencies,
+                getCacheHitRate(), fxThreadStalls);
+    }
+}
@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.nio.file.Path;
+
+/**
+ * Emits Java Flight Recorder events for the phases users perceive as slow:
+ * directory scans, publications of scan results, filtering, sorting and
+ * expansions of the directory tree. A standard recording (e.g.
+ * {@code -XX:StartFlightRecording}) of a production session then shows where
+ * time was spent.
+ * <p>
+ * This is the Java 8 variant which records nothing. On Java 11 and later, the
+ * multi-release JAR provides a variant from {@code src/main/java11} which emits
+ * events in the category FXFileChooser. Modular applications need
+ * {@code --add-modules jdk.jfr} for that, as the module is only required
+ * statically.
+ * <p>
+ * Used by the file and directory chooser, not intended for application use.
+ */
+public final class PerformanceEvents {
+
+    private static final RecordedPhase NONE = RecordedPhase.none();
+
+    private PerformanceEvents() {
+        /* not intended for instantiation */
+    }
+
+    /**
+     * @return true when events are emitted, i.e. on Java 11 and later.
+     */
+    public static boolean areSupported() {
+        return false;
+    }
+
+    /**
+     * @param directory {@link Path} to be scanned for files
+     * @return {@link RecordedPhase} to be ended with the number of entries read
+     */
+    public static RecordedPhase directoryScan(Path directory) {
+        return NONE;
+    }
+
+    /**
+     * @param items Number of files published to the file list at once
+     * @return {@link RecordedPhase} to be ended with the number of items
+     *         published
+     */
+    public static RecordedPhase publication(int items) {
+        return NONE;
+    }
+
+    /**
+     * @param filter    Name of the effective path filter
+     * @param criterion Search text entered by the user, only its length is
+     *                  recorded
+     * @param files     Number of files to be filtered
+     * @return {@link RecordedPhase} to be ended with the number of matching files
+     */
+    public static RecordedPhase filter(String filter, String criterion, int files) {
+        return NONE;
+    }
+
+    /**
+     * @param files Number of files to be sorted
+     * @return {@link RecordedPhase} to be ended with the number of files sorted
+     */
+    public static RecordedPhase sort(int files) {
+        return NONE;
+    }
+
+    /**
+     * @param directory {@link Path} of the expanded directory tree item
+     * @return {@link RecordedPhase} to be ended with the number of sub
+     *         directories added to the tree
+     */
+    public static RecordedPhase treeExpansion(Path directory) {
+        return NONE;
+    }
+}
@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines whether and how many of the configured
+ * {@link net.raumzeitfalle.fx.filechooser.locations.Location}s are read in
+ * background before the user selects them, so that switching to one of them
+ * shows its files instantly.
+ * <p>
+ * Locations are prefetched in order of their use, most used locations first.
+ * The number of directory entries read per location and per prefetch run as
+ * well as the time spent reading one location are limited, so that prefetching
+ * does not compete with the directory the user is looking at.
+ */
+public final class PrefetchPolicy {
+
+    static final int DEFAULT_MAX_ENTRIES_PER_LOCATION = 20_000;
+
+    static final int DEFAULT_MAX_ENTRIES_PER_RUN = 50_000;
+
+    static final long DEFAULT_MAX_READ_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final PrefetchPolicy DISABLED = new PrefetchPolicy(0, 0, 0, 0);
+
+    /**
+     * @return {@link PrefetchPolicy} which does not prefetch any location, this is
+     *         the default.
+     */
+    public static PrefetchPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param locations Maximum number of locations to prefetch.
+     * @return {@link PrefetchPolicy} which prefetches the given number of most
+     *         used locations.
+     */
+    public static PrefetchPolicy mostUsed(int locations) {
+        if (locations < 0)
+            throw new IllegalArgumentException("locations must not be negative");
+        return new PrefetchPolicy(locations, DEFAULT_MAX_ENTRIES_PER_LOCATION, DEFAULT_MAX_ENTRIES_PER_RUN,
+                DEFAULT_MAX_READ_NANOS);
+    }
+
+    private final int maxLocations;
+
+    private final int maxEntriesPerLocation;
+
+    private final int maxEntriesPerRun;
+
+    private final long maxReadNanos;
+
+    private PrefetchPolicy(int maxLocations, int maxEntriesPerLocation, int maxEntriesPerRun, long maxReadNanos) {
+        this.maxLocations = maxLocations;
+        this.maxEntriesPerLocation = maxEntriesPerLocation;
+        this.maxEntriesPerRun = maxEntriesPerRun;
+        this.maxReadNanos = maxReadNanos;
+    }
+
+    /**
+     * @param entries Maximum number of directory entries of one location, larger
+     *                locations are not prefetched.
+     * @return {@link PrefetchPolicy} with the given limit
+     */
+    public PrefetchPolicy withMaxEntriesPerLocation(int entries) {
+        if (entries < 0)
+            throw new IllegalArgumentException("entries must not be negative");
+        return new PrefetchPolicy(maxLocations, entries, maxEntriesPerRun, maxReadNanos);
+    }
+
+    /**
+     * @param entries Maximum number of directory entries read by one prefetch run
+     *                over all locations.
+     * @return {@link PrefetchPolicy} with the given limit
+     */
+    public PrefetchPolicy withMaxEntriesPerRun(int entries) {
+        if (entries < 0)
+            throw new IllegalArgumentException("entries must not be negative");
+        return new PrefetchPolicy(maxLocations, maxEntriesPerLocation, entries, maxReadNanos);
+    }
+
+    /**
+     * @param time Maximum time spent reading one location, locations which take
+     *             longer are not prefetched.
+     * @param unit {@link TimeUnit} of the time
+     * @return {@link PrefetchPolicy} with the given limit
+     */
+    public PrefetchPolicy withMaxReadTime(long time, TimeUnit unit) {
+        if (time < 0)
+            throw new IllegalArgumentException("time must not be negative");
+        return new PrefetchPolicy(maxLocations, maxEntriesPerLocation, maxEntriesPerRun, unit.toNanos(time));
+    }
+
+    public boolean isEnabled() {
+        return maxLocations > 0 && maxEntriesPerLocation > 0 && maxEntriesPerRun > 0;
+    }
+
+    public int getMaxLocations() {
+        return maxLocations;
+    }
+
+    public int getMaxEntriesPerLocation() {
+        return maxEntriesPerLocation;
+    }
+
+    public int getMaxEntriesPerRun() {
+        return maxEntriesPerRun;
+    }
+
+    long getMaxReadNanos() {
+        return maxReadNanos;
+    }
+}
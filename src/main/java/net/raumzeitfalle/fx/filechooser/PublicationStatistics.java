@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how scan results are published to the JavaFX
+ * application thread. One instance is shared by all scans of an
+ * {@link UpdateService}.
+ */
+final class PublicationStatistics {
+
+    private final AtomicLong queuedItems = new AtomicLong(0);
+
+    private final AtomicLong publishedItems = new AtomicLong(0);
+
+    private final AtomicLong discardedItems = new AtomicLong(0);
+
+    private final AtomicLong publications = new AtomicLong(0);
+
+    private final AtomicLong totalLatencyNanos = new AtomicLong(0);
+
+    private final AtomicLong maxLatencyNanos = new AtomicLong(0);
+
+    private final AtomicLong lastLatencyNanos = new AtomicLong(0);
+
+    void itemsQueued(int items) {
+        queuedItems.addAndGet(items);
+    }
+
+    void itemsPublished(int items, long latencyNanos) {
+        queuedItems.addAndGet(-items);
+        publishedItems.addAndGet(items);
+        publications.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        lastLatencyNanos.set(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    /**
+     * Counts items which were offered after the scan has been cancelled while
+     * both buffers were in use, these are never queued nor published.
+     */
+    void itemsDiscarded(int items) {
+        discardedItems.addAndGet(items);
+    }
+
+    /**
+     * @return number of items waiting for publication.
+     */
+    long getQueuedItems() {
+        return queuedItems.get();
+    }
+
+    long getPublishedItems() {
+        return publishedItems.get();
+    }
+
+    long getDiscardedItems() {
+        return discardedItems.get();
+    }
+
+    long getPublications() {
+        return publications.get();
+    }
+
+    /**
+     * @return time in nanoseconds between collecting the first item of the most
+     *         recent update and its publication on the FX thread.
+     */
+    long getLastLatencyNanos() {
+        return lastLatencyNanos.get();
+    }
+
+    long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    long getAverageLatencyNanos() {
+        long count = publications.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / count;
+    }
+}
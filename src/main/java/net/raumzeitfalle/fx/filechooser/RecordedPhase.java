@@ -0,0 +1,47 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+/**
+ * A measured phase of the file or directory chooser, such as a directory scan.
+ * The phase begins when it is created by {@link PerformanceEvents} and ends
+ * with the number of items it processed.
+ */
+@FunctionalInterface
+public interface RecordedPhase {
+
+    /**
+     * @return {@link RecordedPhase} which records nothing, used when events are
+     *         not recorded.
+     */
+    static RecordedPhase none() {
+        return count -> {
+            /* not recorded */
+        };
+    }
+
+    /**
+     * Ends the phase and records it.
+     * 
+     * @param count Number of items processed in this phase, e.g. directory
+     *              entries scanned or files matching a filter.
+     */
+    void end(long count);
+}
@@ -20,83 +20,228 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
 
 import javafx.application.Platform;
 import javafx.collections.ObservableList;
 
+/**
+ * Collects indexed files on the scanning thread (the single producer) and
+ * publishes them in batches on the JavaFX application thread (the single
+ * consumer).
+ * <p>
+ * Two pre-sized buffers are used: the scanner fills the front buffer while the
+ * other one is handed over to the FX thread by a {@link CoalescingPublisher}.
+ * Buffers are swapped without locking, at most one buffer is in flight at any
+ * time. The only copy of the items is made by the target list when a batch is
+ * added to it.
+ * <p>
+ * Batches are formed by time, not by count: the first file is published
+ * immediately, afterwards at most once per pulse. While a buffer is still
+ * waiting for the FX thread, files are collected into a larger batch instead of
+ * queueing further updates. When the front buffer is full while the FX thread
+ * is behind, the scanner waits (back-pressure) until the buffer in flight has
+ * been published or the scan has been cancelled.
+ */
 final class RefreshBuffer {
 
-    static RefreshBuffer get(FindFilesTask task, int expectedNumberOfElements, ObservableList<IndexedPath> target) {
-        int bufferSize = determineBufferSize(expectedNumberOfElements);
-        return new RefreshBuffer(task, bufferSize, target);
+    /**
+     * Minimum time between two publications, one pulse at 60 frames per second.
+     */
+    static final long PUBLICATION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    /**
+     * Number of collected items which are published without waiting for the
+     * publication interval.
+     */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Maximum capacity of each buffer, hence maximum number of items published
+     * with one update.
+     */
+    static final int DEFAULT_CAPACITY = 50_000;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final long BACK_PRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    static RefreshBuffer get(FindFilesTask task, int expectedNumberOfElements, ObservableList<IndexedPath> target,
+            PublicationStatistics statistics) {
+        return new RefreshBuffer(task::isCancelled, target, statistics, System::nanoTime, Platform::runLater,
+                determineCapacity(expectedNumberOfElements));
+    }
+
+    static int determineCapacity(int expectedNumberOfElements) {
+        return Math.max(MIN_CAPACITY, Math.min(DEFAULT_CAPACITY, expectedNumberOfElements));
     }
 
-    private final List<IndexedPath> cache;
+    private final PublicationStatistics statistics;
+
+    private final BooleanSupplier cancelled;
 
-    private final AtomicReference<List<IndexedPath>> atomicCache;
+    private final LongSupplier clock;
 
-    private final ReentrantLock lock = new ReentrantLock();
+    private final Executor fxThread;
 
-    private final ObservableList<IndexedPath> target;
+    private final Batch first;
 
-    private final int desiredCacheSize;
+    private final Batch second;
 
-    private final FindFilesTask task;
+    private final CoalescingPublisher publisher;
 
-    private RefreshBuffer(FindFilesTask task, int bufferSize, ObservableList<IndexedPath> target) {
-        this.cache = new ArrayList<>(2 * bufferSize);
-        this.target = target;
-        this.desiredCacheSize = bufferSize;
-        this.atomicCache = new AtomicReference<>(cache);
-        this.task = task;
+    /*
+     * Only accessed by the thread holding the slot of the publisher.
+     */
+    private Batch inFlight;
+
+    private volatile Batch front;
+
+    private volatile boolean flushRequested = false;
+
+    private long lastPublication;
+
+    RefreshBuffer(BooleanSupplier cancelled, ObservableList<IndexedPath> target, PublicationStatistics statistics,
+            LongSupplier clock, Executor fxThread, int capacity) {
+        this.cancelled = cancelled;
+        this.publisher = new CoalescingPublisher(target, statistics, clock, this::published);
+        this.statistics = statistics;
+        this.clock = clock;
+        this.fxThread = fxThread;
+        this.first = new Batch(capacity);
+        this.second = new Batch(capacity);
+        this.front = first;
+        this.lastPublication = clock.getAsLong() - PUBLICATION_INTERVAL_NANOS;
     }
 
     void update(Path file) {
-        cache.add(IndexedPath.valueOf(file));
-        if (!task.isCancelled() && currentCacheSize() > desiredCacheSize) {
-            flush();
+        update(IndexedPath.valueOf(file));
+    }
+
+    void update(IndexedPath indexedPath) {
+        if (front.isFull() && !awaitHandOff()) {
+            statistics.itemsDiscarded(1);
+            return;
+        }
+
+        front.add(indexedPath, clock);
+        if (!cancelled.getAsBoolean() && isPublicationDue()) {
+            handOff(fxThread);
         }
     }
 
-    private int currentCacheSize() {
-        return cache.size();
+    private boolean isPublicationDue() {
+        if (!publisher.isIdle())
+            return false;
+
+        if (front.size >= MAX_BATCH_SIZE)
+            return true;
+
+        return clock.getAsLong() - lastPublication >= PUBLICATION_INTERVAL_NANOS;
     }
 
+    /*
+     * Back-pressure: the front buffer is full and the other buffer is still
+     * waiting for the FX thread. Items offered after cancellation are discarded
+     * in this situation.
+     */
+    private boolean awaitHandOff() {
+        while (!handOff(fxThread)) {
+            if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted())
+                return false;
+            LockSupport.parkNanos(BACK_PRESSURE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /*
+     * Called by the scanning thread and, after flush(), by the FX thread. The
+     * front buffer is only read and swapped while holding the slot of the
+     * publisher, hence it cannot be published by the other thread meanwhile.
+     */
+    private boolean handOff(Executor executor) {
+        if (!publisher.tryClaim())
+            return false;
+
+        Batch batch = front;
+        if (batch.size == 0) {
+            publisher.release();
+            return true;
+        }
+        front = (batch == first) ? second : first;
+        inFlight = batch;
+        lastPublication = clock.getAsLong();
+        publisher.publish(batch.view, batch.since, executor);
+        return true;
+    }
+
+    /**
+     * Publishes all remaining items. This must be the last call of the scanning
+     * thread, it never blocks. When a buffer is still in flight, the remaining
+     * items are handed over by the FX thread once it has published the buffer in
+     * flight, within the same FX thread pulse. This way all items are published
+     * before any notification the scanning task schedules after its last call.
+     */
     void flush() {
-        this.lock.lock();
-        try {
-            IndexedPath[] update = this.atomicCache.get().toArray(new IndexedPath[0]);
-            Platform.runLater(() -> target.addAll(update));
-            this.atomicCache.get().clear();
-        } finally {
-            this.lock.unlock();
+        flushRequested = true;
+        handOff(fxThread);
+    }
+
+    private void published() {
+        inFlight.clear();
+        inFlight = null;
+        publisher.release();
+        if (flushRequested) {
+            handOff(Runnable::run);
         }
     }
 
-    static int determineBufferSize(int items) {
-        if (items > 500_000)
-            return 1000;
+    private static final class Batch {
 
-        if (items > 100_000)
-            return 500;
+        private final IndexedPath[] items;
 
-        if (items > 50_000)
-            return 200;
+        private final List<IndexedPath> view;
 
-        if (items > 15_000)
-            return 100;
+        private int size = 0;
 
-        if (items > 5_000)
-            return 50;
+        private long since = 0;
 
-        if (items > 1_000)
-            return 20;
+        private Batch(int capacity) {
+            this.items = new IndexedPath[capacity];
+            this.view = new AbstractList<IndexedPath>() {
+                @Override
+                public IndexedPath get(int index) {
+                    return items[index];
+                }
 
-        return 10;
-    }
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private boolean isFull() {
+            return size == items.length;
+        }
 
+        private void add(IndexedPath item, LongSupplier clock) {
+            if (size == 0) {
+                since = clock.getAsLong();
+            }
+            items[size++] = item;
+        }
+
+        private void clear() {
+            Arrays.fill(items, 0, size, null);
+            size = 0;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+/**
+ * Defines what happens when a chooser is shown again. Keeping one chooser
+ * instance and showing it repeatedly avoids creating its view, controller and
+ * file index for every use, the files of the last directory are available
+ * immediately.
+ * <p>
+ * By default, a chooser shows up the way it was left: with the previous
+ * selection, filter text and file list. With {@link #resetState()}, selection
+ * and filter text are cleared each time the chooser is shown again.
+ * {@link #withRescan()} additionally starts reading the last directory again
+ * before the chooser is shown, so that files added in the meantime appear.
+ */
+public final class ReusePolicy {
+
+    private static final ReusePolicy KEEP_STATE = new ReusePolicy(false, false);
+
+    private static final ReusePolicy RESET_STATE = new ReusePolicy(true, false);
+
+    /**
+     * @return {@link ReusePolicy} which keeps selection, filter text and file
+     *         list between uses, this is the default.
+     */
+    public static ReusePolicy keepState() {
+        return KEEP_STATE;
+    }
+
+    /**
+     * @return {@link ReusePolicy} which clears selection and filter text before
+     *         the chooser is shown again.
+     */
+    public static ReusePolicy resetState() {
+        return RESET_STATE;
+    }
+
+    private final boolean reset;
+
+    private final boolean rescan;
+
+    private ReusePolicy(boolean reset, boolean rescan) {
+        this.reset = reset;
+        this.rescan = rescan;
+    }
+
+    /**
+     * @return {@link ReusePolicy} which also reads the last directory again
+     *         before the chooser is shown again.
+     */
+    public ReusePolicy withRescan() {
+        return new ReusePolicy(reset, true);
+    }
+
+    public boolean resetsState() {
+        return reset;
+    }
+
+    public boolean rescans() {
+        return rescan;
+    }
+
+    @Override
+    public String toString() {
+        return "ReusePolicy [reset=" + reset + ", rescan=" + rescan + "]";
+    }
+}
@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor which runs file system scanning work of all file and
+ * directory chooser instances. File indexing and directory tree updates use
+ * separate executors, so that directories on hung network shares can block
+ * only one kind of work.
+ * <p>
+ * Worker threads are daemon threads, so that the executor never prevents the
+ * JVM from exiting. Idle workers time out, hence an application which does not
+ * show a chooser does not keep any scanning threads alive.
+ * <p>
+ * On Java 21 and later each task runs on its own virtual thread instead (see
+ * {@link ScanningThreads}), the number of concurrent tasks is then bounded by a
+ * larger limit.
+ */
+public final class ScanningExecutor implements Executor {
+
+    private static final ScanningExecutor SHARED = new ScanningExecutor("fxfilechooser-scan",
+            defaultNumberOfWorkers());
+
+    private static final ScanningExecutor DIRECTORY_TREES = new ScanningExecutor("fxfilechooser-tree", 2);
+
+    /**
+     * @return the {@link ScanningExecutor} indexing files, shared by all
+     *         choosers.
+     */
+    public static ScanningExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return the {@link ScanningExecutor} updating directory trees, shared by
+     *         all directory choosers.
+     */
+    public static ScanningExecutor directoryTrees() {
+        return DIRECTORY_TREES;
+    }
+
+    static int defaultNumberOfWorkers() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(2, Math.min(4, cores));
+    }
+
+    private final ExecutorService pool;
+
+    private final int maximumWorkers;
+
+    private final AtomicInteger queued = new AtomicInteger(0);
+
+    private final AtomicInteger active = new AtomicInteger(0);
+
+    private final AtomicLong completed = new AtomicLong(0);
+
+    ScanningExecutor(String name, int workers) {
+        this.pool = ScanningThreads.newExecutor(name, workers);
+        this.maximumWorkers = ScanningThreads.maximumWorkers(workers);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        queued.incrementAndGet();
+        try {
+            pool.execute(() -> runMeasured(command));
+        } catch (RuntimeException rejected) {
+            queued.decrementAndGet();
+            throw rejected;
+        }
+    }
+
+    private void runMeasured(Runnable command) {
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        try {
+            command.run();
+        } finally {
+            active.decrementAndGet();
+            completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return number of tasks waiting for a free worker.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return number of workers currently running a task.
+     */
+    public int getActiveWorkers() {
+        return active.get();
+    }
+
+    /**
+     * @return maximum number of tasks which are executed concurrently.
+     */
+    public int getMaximumWorkers() {
+        return maximumWorkers;
+    }
+
+    /**
+     * @return number of tasks which have been completed since creation.
+     */
+    public long getCompletedTasks() {
+        return completed.get();
+    }
+}
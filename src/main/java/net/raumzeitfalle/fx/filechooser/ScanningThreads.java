@@ -0,0 +1,64 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads which perform blocking file system I/O.
+ * <p>
+ * This is the Java 8 variant which uses a bounded number of daemon platform
+ * threads. On Java 21 and later, the multi-release JAR provides a variant from
+ * {@code src/main/java21} which runs every task on its own virtual thread.
+ */
+final class ScanningThreads {
+
+    private ScanningThreads() {
+        /* not intended for instantiation */
+    }
+
+    /**
+     * @return true when blocking I/O runs on virtual threads, so that file
+     *         attributes can be read concurrently one task per file.
+     */
+    static boolean areVirtual() {
+        return false;
+    }
+
+    static ExecutorService newExecutor(String name, int workers) {
+        AtomicInteger counter = new AtomicInteger(0);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    static int maximumWorkers(int workers) {
+        return workers;
+    }
+}
@@ -50,17 +50,19 @@ public enum Skin {
         return first + cssName;
     }
 
-    private static String getClassName(Object parent) {
-        return parent.getClass().getSimpleName();
-    }
-
     private String getCssLocation(Object parent) {
+        return stylesheetOf(parent.getClass());
+    }
 
-        String className = getClassName(parent);
-        String styleName = getStyleName();
-        String styleSheetName = className + styleName + ".css";
+    /**
+     * @param viewClass Class of the view to be styled
+     * @return URL of the stylesheet of this skin for the given view or null if the
+     *         view has none
+     */
+    String stylesheetOf(Class<?> viewClass) {
+        String styleSheetName = viewClass.getSimpleName() + getStyleName() + ".css";
 
-        URL url = parent.getClass().getResource(styleSheetName);
+        URL url = viewClass.getResource(styleSheetName);
 
         if (url == null) {
             return null;
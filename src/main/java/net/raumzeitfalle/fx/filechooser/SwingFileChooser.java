@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import javax.swing.JDialog;
@@ -84,6 +85,7 @@ public class SwingFileChooser extends JFXPanel implements HideableView {
                     pathSupplier = FXDirectoryChooser.createIn(startHere, () -> fc.getScene().getWindow());
                 } else {
                     DirectoryChooserView dirChooser = new DirectoryChooserView(skin);
+                    fc.dirChooserView = dirChooser;
                     Scene dirChooserScene = new Scene(dirChooser);
                     pathSupplier = new PathSupplier() {
                         @Override
@@ -112,6 +114,7 @@ public class SwingFileChooser extends JFXPanel implements HideableView {
 
                 FileChooserView view = new FileChooserView(pathSupplier, fc, fc.model, skin,
                         FileChooserViewOption.STAGE);
+                fc.fileChooserView = view;
                 Scene fileChooserScene = new Scene(view);
                 fc.setScene(fileChooserScene);
             } catch (IOException e) {
@@ -122,6 +125,21 @@ public class SwingFileChooser extends JFXPanel implements HideableView {
         return fc;
     }
 
+    /**
+     * Starts the JavaFX toolkit and loads the views, stylesheets, fonts and
+     * icons of the given {@link Skin} in background, so that the first
+     * {@link #showOpenDialog(Component)} appears without delay. Meant to be
+     * called once at application startup, the call returns immediately.
+     * Subsequent calls for the same skin return the same future.
+     * 
+     * @param skin {@link Skin} of the choosers to be created later
+     * @return {@link CompletableFuture} which completes once the warm-up has
+     *         finished
+     */
+    public static CompletableFuture<Void> warmUp(Skin skin) {
+        return ToolkitWarmUp.start(skin);
+    }
+
     private static Path startPath(String pathToBrowse) {
         Path startHere = Paths.get(pathToBrowse);
         if (pathToBrowse.equals("")) {
@@ -132,6 +150,12 @@ public class SwingFileChooser extends JFXPanel implements HideableView {
 
     private transient FileChooserModel model;
 
+    private transient DirectoryChooserView dirChooserView;
+
+    private transient FileChooserView fileChooserView;
+
+    private transient Path selectedFile;
+
     private JDialog dialog;
 
     private String title;
@@ -150,19 +174,35 @@ public class SwingFileChooser extends JFXPanel implements HideableView {
             this.setMinimumSize(size);
             dialog.pack();
             dialog.setResizable(true);
+        } else if (this.model.getReusePolicy().rescans()) {
+            Platform.runLater(model::refreshFiles);
         }
 
         this.dialog.setVisible(true);
-        if (this.model.invalidSelectionProperty().getValue()) {
-            return CANCEL_OPTION;
-        } else {
-            return APPROVE_OPTION;
-        }
+        int result = this.model.invalidSelectionProperty().getValue() ? CANCEL_OPTION : APPROVE_OPTION;
+        this.selectedFile = this.model.getSelectedFile();
+        resetAfterUse(this.model.getReusePolicy());
+        return result;
+    }
+
+    /*
+     * The chooser is reset when it has been hidden, so that it is clean when
+     * shown again without blocking the event dispatch thread. The result is
+     * kept for getSelectedFile().
+     */
+    private void resetAfterUse(ReusePolicy policy) {
+        if (!policy.resetsState())
+            return;
+        Platform.runLater(() -> {
+            if (null != fileChooserView) {
+                fileChooserView.prepareForReuse(ReusePolicy.resetState());
+            }
+        });
     }
 
     public File getSelectedFile() {
-        if (null != this.model.getSelectedFile()) {
-            return this.model.getSelectedFile().toFile();
+        if (null != this.selectedFile) {
+            return this.selectedFile.toFile();
         } else {
             return null;
         }
@@ -177,6 +217,29 @@ public class SwingFileChooser extends JFXPanel implements HideableView {
         locations.forEach(model::addLocation);
     }
 
+    /**
+     * @return {@link FileChooserModel} of this chooser, e.g. to configure its
+     *         location history, prefetching and reuse
+     */
+    public FileChooserModel getModel() {
+        return model;
+    }
+
+    /**
+     * Disposes the dialog and releases all resources held by this chooser.
+     */
+    public void dispose() {
+        this.model.dispose();
+        Platform.runLater(() -> {
+            if (null != dirChooserView) {
+                dirChooserView.dispose();
+            }
+        });
+        if (null != this.dialog) {
+            this.dialog.dispose();
+        }
+    }
+
     protected void setTitle(String newTitle) {
         this.title = newTitle;
         this.dialog.setTitle(title);
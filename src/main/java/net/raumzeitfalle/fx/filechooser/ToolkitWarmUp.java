@@ -0,0 +1,198 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TreeView;
+import javafx.scene.layout.AnchorPane;
+import net.raumzeitfalle.fx.dirchooser.DirectoryChooserView;
+
+/**
+ * Pays the one-time costs of the first {@link SwingFileChooser} ahead of time:
+ * the JavaFX toolkit is started from the Swing event dispatch thread, then an
+ * offscreen file chooser with an idle model is created and styled on the
+ * JavaFX application thread, and the file icons are preloaded. The directory
+ * chooser is not created, as its tree reads the file system; only its
+ * stylesheet and tree controls are styled offscreen. A small offscreen node
+ * per {@link Skin} keeps using the stylesheets, so that they stay parsed.
+ * Each skin is warmed up only once.
+ */
+final class ToolkitWarmUp {
+
+    private static final Logger LOG = Logger.getLogger(ToolkitWarmUp.class.getName());
+
+    private static final Map<Skin, CompletableFuture<Void>> WARM_UPS = new ConcurrentHashMap<>();
+
+    private static final Map<Skin, Parent> STYLED = new ConcurrentHashMap<>();
+
+    private ToolkitWarmUp() {
+        /* static helper */
+    }
+
+    /**
+     * @param skin {@link Skin} which has been warmed up
+     * @return stylesheets kept in use for the skin, empty before the warm-up
+     *         completed
+     */
+    static List<String> stylesheetsOf(Skin skin) {
+        Parent styled = STYLED.get(skin);
+        return null == styled ? Collections.emptyList() : styled.getStylesheets();
+    }
+
+    static CompletableFuture<Void> start(Skin skin) {
+        Objects.requireNonNull(skin, "skin must not be null");
+        return WARM_UPS.computeIfAbsent(skin, ToolkitWarmUp::warmUp);
+    }
+
+    private static CompletableFuture<Void> warmUp(Skin skin) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        SwingUtilities.invokeLater(() -> {
+            try {
+                /* creating a JFXPanel starts the toolkit for Swing hosts */
+                new JFXPanel();
+                Platform.runLater(() -> createOffscreenViews(skin, done));
+            } catch (RuntimeException | Error error) {
+                failed(skin, done, error);
+            }
+        });
+        return done;
+    }
+
+    private static void createOffscreenViews(Skin skin, CompletableFuture<Void> done) {
+        long start = System.nanoTime();
+        FileChooserModel model = new FileChooserModel(FXCollections.observableArrayList(), IdleUpdateService::new);
+        try {
+            FileChooserView fileChooser = new FileChooserView(update -> {
+                /* the offscreen view never asks for a directory */
+            }, () -> {
+                /* the offscreen view is never shown */
+            }, model, skin, FileChooserViewOption.STAGE);
+            layoutOffscreen(fileChooser);
+            FileIcons.preload();
+
+            Parent styled = new AnchorPane(new ListView<String>(), new TreeView<String>());
+            addStylesheet(styled, skin.stylesheetOf(FileChooserView.class));
+            addStylesheet(styled, skin.stylesheetOf(DirectoryChooserView.class));
+            layoutOffscreen(styled);
+            STYLED.put(skin, styled);
+            LOG.log(Level.FINE, "warmed up {0} skin in {1} ms",
+                    new Object[] { skin, (System.nanoTime() - start) / 1_000_000 });
+            done.complete(null);
+        } catch (Exception | Error error) {
+            failed(skin, done, error);
+        } finally {
+            model.dispose();
+        }
+    }
+
+    private static void addStylesheet(Parent view, String stylesheet) {
+        if (null != stylesheet) {
+            view.getStylesheets().add(stylesheet);
+        }
+    }
+
+    private static void layoutOffscreen(Parent view) {
+        new Scene(view);
+        view.applyCss();
+        view.layout();
+    }
+
+    private static void failed(Skin skin, CompletableFuture<Void> done, Throwable error) {
+        LOG.log(Level.WARNING, "warm-up of " + skin + " skin failed", error);
+        WARM_UPS.remove(skin, done);
+        done.completeExceptionally(error);
+    }
+
+    /**
+     * The offscreen view shows no files, hence nothing is ever searched.
+     */
+    private static final class IdleUpdateService implements UpdateService {
+
+        private final ObjectProperty<Path> searchPath = new SimpleObjectProperty<>(Paths.get("."));
+
+        private final SimpleBooleanProperty running = new SimpleBooleanProperty(false);
+
+        private final SimpleDoubleProperty progress = new SimpleDoubleProperty(1d);
+
+        @Override
+        public void restartIn(Path location) {
+            searchPath.set(location);
+        }
+
+        @Override
+        public ObjectProperty<Path> searchPathProperty() {
+            return searchPath;
+        }
+
+        @Override
+        public void refresh() {
+            /* nothing to search */
+        }
+
+        @Override
+        public void startUpdate() {
+            /* nothing to search */
+        }
+
+        @Override
+        public void cancelUpdate() {
+            /* nothing is running */
+        }
+
+        @Override
+        public void dispose() {
+            /* nothing to release */
+        }
+
+        @Override
+        public ReadOnlyBooleanProperty runningProperty() {
+            return running;
+        }
+
+        @Override
+        public ReadOnlyDoubleProperty progressProperty() {
+            return progress;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import java.nio.file.Path;
+import java.util.List;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -31,6 +32,13 @@ interface UpdateService {
     void refresh();
     void startUpdate();
     void cancelUpdate();
+    void dispose();
     ReadOnlyBooleanProperty runningProperty();
     ReadOnlyDoubleProperty progressProperty();
+    default void setListingCache(DirectoryCache<List<IndexedPath>> listings) {
+        /* services without a file listing cache ignore it */
+    }
+    default void setMetrics(ChooserMetrics metrics) {
+        /* services without scans do not record metrics */
+    }
 }
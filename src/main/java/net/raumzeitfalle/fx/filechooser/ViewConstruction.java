@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Objects;
+
+/**
+ * Defines how the views of the file and directory choosers are created.
+ * <p>
+ * Loading a view from FXML parses the FXML file and populates the controller
+ * via reflection each time a chooser is created. The programmatic views create
+ * the very same scene graph in code, which noticeably shortens the time until
+ * a chooser is shown for the first time.
+ */
+public enum ViewConstruction {
+
+    /**
+     * Views are loaded from FileChooserView.fxml and DirectoryChooserView.fxml,
+     * this is the default.
+     */
+    FXML,
+
+    /**
+     * Views are created in code, without FXMLLoader.
+     */
+    PROGRAMMATIC;
+
+    private static volatile ViewConstruction selected = FXML;
+
+    /**
+     * Selects how views of choosers created from now on are constructed.
+     * 
+     * @param construction {@link ViewConstruction}
+     */
+    public static void select(ViewConstruction construction) {
+        selected = Objects.requireNonNull(construction, "construction must not be null");
+    }
+
+    /**
+     * @return {@link ViewConstruction} used for new choosers.
+     */
+    public static ViewConstruction selected() {
+        return selected;
+    }
+}
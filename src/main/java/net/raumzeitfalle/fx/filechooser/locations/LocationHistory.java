@@ -0,0 +1,319 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser.locations;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers the directories in which files were chosen and ranks them by
+ * frecency, i.e. by how often and how recently they were used. Each use counts
+ * one, the count of a directory halves every {@link #HALF_LIFE_MILLIS}.
+ * <p>
+ * The history is stored in a small text file which is rewritten with the
+ * highest ranked directories only, so that it never grows beyond its capacity.
+ * Writing happens in background, a failure to read or write the file is logged
+ * and otherwise ignored.
+ */
+public final class LocationHistory {
+
+    /**
+     * Number of directories remembered by default.
+     */
+    public static final int DEFAULT_CAPACITY = 50;
+
+    static final long HALF_LIFE_MILLIS = TimeUnit.DAYS.toMillis(14);
+
+    private static final String HEADER = "# FXFileChooser location history, version 1";
+
+    private static final String SEPARATOR = "\t";
+
+    private static final Logger LOG = Logger.getLogger(LocationHistory.class.getName());
+
+    private static final ExecutorService WRITER = createWriter();
+
+    private static ExecutorService createWriter() {
+        ThreadPoolExecutor thread = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread writer = new Thread(r, "fxfilechooser-history");
+                    writer.setDaemon(true);
+                    return writer;
+                });
+        thread.allowCoreThreadTimeOut(true);
+        return thread;
+    }
+
+    /**
+     * Creates a history which is read from and written to the given file. The
+     * file is created with the first recorded directory.
+     * 
+     * @param file {@link Path} of the history file, e.g.
+     *             {@code ~/.myapp/filechooser-history.txt}
+     * @return {@link LocationHistory} remembering up to {@link #DEFAULT_CAPACITY}
+     *         directories
+     */
+    public static LocationHistory storedIn(Path file) {
+        return storedIn(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param file     {@link Path} of the history file
+     * @param capacity Maximum number of directories to remember
+     * @return {@link LocationHistory}
+     */
+    public static LocationHistory storedIn(Path file, int capacity) {
+        Objects.requireNonNull(file, "file must not be null");
+        return new LocationHistory(file, capacity, System::currentTimeMillis);
+    }
+
+    /**
+     * @param capacity Maximum number of directories to remember
+     * @return {@link LocationHistory} which is not persisted
+     */
+    public static LocationHistory inMemory(int capacity) {
+        return new LocationHistory(null, capacity, System::currentTimeMillis);
+    }
+
+    private final Path file;
+
+    private final int capacity;
+
+    private final LongSupplier clock;
+
+    private final Map<Path, Entry> entries = new HashMap<>();
+
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+
+    LocationHistory(Path file, int capacity, LongSupplier clock) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1");
+        this.file = file;
+        this.capacity = capacity;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        if (null != file) {
+            read();
+        }
+    }
+
+    /**
+     * Records a use of the given directory.
+     * 
+     * @param directory {@link Path} of the directory where a file was chosen
+     */
+    public void record(Path directory) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        Path key = directory.toAbsolutePath().normalize();
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry previous = entries.get(key);
+            double count = null == previous ? 1d : previous.scoreAt(now) + 1d;
+            entries.put(key, new Entry(key, count, now));
+            if (entries.size() > capacity) {
+                compact(now);
+            }
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * @param maxLocations Maximum number of {@link Location}s to return
+     * @return the highest ranked directories as {@link Location}s, best first
+     */
+    public List<Location> getTopLocations(int maxLocations) {
+        return ranked(clock.getAsLong()).stream()
+                                        .limit(maxLocations)
+                                        .map(entry -> Locations.withName(entry.directory.toString(),
+                                                entry.directory))
+                                        .collect(Collectors.toList());
+    }
+
+    /**
+     * @return number of directories currently remembered
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Writes the history immediately, usually not needed as each recorded use
+     * schedules a write.
+     */
+    public void flush() {
+        if (null != file) {
+            write();
+        }
+    }
+
+    private List<Entry> ranked(long now) {
+        List<Entry> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries.values());
+        }
+        snapshot.sort(Comparator.comparingDouble((Entry entry) -> entry.scoreAt(now)).reversed());
+        return snapshot;
+    }
+
+    private void compact(long now) {
+        List<Entry> ranked = new ArrayList<>(entries.values());
+        ranked.sort(Comparator.comparingDouble((Entry entry) -> entry.scoreAt(now)).reversed());
+        for (Entry dropped : ranked.subList(capacity, ranked.size())) {
+            entries.remove(dropped.directory);
+        }
+    }
+
+    private void scheduleWrite() {
+        if (null != file && writeScheduled.compareAndSet(false, true)) {
+            WRITER.execute(() -> {
+                writeScheduled.set(false);
+                write();
+            });
+        }
+    }
+
+    /*
+     * The history is written to a temporary file which then replaces the
+     * previous one, so that a crash while writing never leaves a partial file.
+     * A temporary file which could not be moved in place is removed again.
+     */
+    private synchronized void write() {
+        List<Entry> ranked = ranked(clock.getAsLong());
+        Path temporary = null;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (null != directory) {
+                Files.createDirectories(directory);
+            }
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Entry entry : ranked.subList(0, Math.min(capacity, ranked.size()))) {
+                    writer.write(entry.toLine());
+                    writer.newLine();
+                }
+            }
+            moveInPlace(temporary);
+        } catch (IOException | SecurityException e) {
+            LOG.log(Level.WARNING, "Could not write location history to " + file, e);
+        } finally {
+            deleteIfExists(temporary);
+        }
+    }
+
+    private static void deleteIfExists(Path temporary) {
+        if (null == temporary)
+            return;
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException | SecurityException e) {
+            LOG.log(Level.FINE, "Could not delete " + temporary, e);
+        }
+    }
+
+    private void moveInPlace(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void read() {
+        if (!Files.isRegularFile(file))
+            return;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                Entry entry = Entry.parse(line);
+                if (null != entry) {
+                    entries.put(entry.directory, entry);
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            LOG.log(Level.WARNING, "Could not read location history from " + file, e);
+        }
+        if (entries.size() > capacity) {
+            compact(clock.getAsLong());
+        }
+    }
+
+    private static final class Entry {
+
+        private final Path directory;
+
+        private final double count;
+
+        private final long lastUsed;
+
+        private Entry(Path directory, double count, long lastUsed) {
+            this.directory = directory;
+            this.count = count;
+            this.lastUsed = lastUsed;
+        }
+
+        private double scoreAt(long now) {
+            long age = Math.max(0, now - lastUsed);
+            return count * Math.pow(0.5d, (double) age / HALF_LIFE_MILLIS);
+        }
+
+        private String toLine() {
+            return count + SEPARATOR + lastUsed + SEPARATOR + directory;
+        }
+
+        private static Entry parse(String line) {
+            if (line.isEmpty() || line.startsWith("#"))
+                return null;
+            String[] fields = line.split(SEPARATOR, 3);
+            if (fields.length != 3)
+                return null;
+            try {
+                return new Entry(Paths.get(fields[2]), Double.parseDouble(fields[0]), Long.parseLong(fields[1]));
+            } catch (NumberFormatException | InvalidPathException e) {
+                LOG.log(Level.FINE, "Skipping invalid location history entry: {0}", line);
+                return null;
+            }
+        }
+    }
+}
@@ -19,19 +19,51 @@
  */
 package net.raumzeitfalle.fx.filechooser.locations;
 
-import java.io.File;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import net.raumzeitfalle.fx.filechooser.FileSystemProbe;
 
 public class Locations {
 
+    /**
+     * Creates a {@link Location} for the given path. When the path denotes a
+     * file, the location of its parent directory is created.
+     * <p>
+     * Checking whether the path is a file waits for the file system for a few
+     * seconds at most. If the file system does not answer in time, e.g. as the
+     * path is located on an unavailable network share, the path is used as is.
+     * Use {@link #resolve(Path)} where waiting is not acceptable, e.g. on the
+     * JavaFX application thread.
+     * 
+     * @param path {@link Path} of a directory or file
+     * @return {@link Location}
+     */
     public static Location at(Path path) {
-        File file = Objects.requireNonNull(path, "path must not be null").toFile();
-        if (null != path.getParent() && file.isFile()) {
-            Path parent = path.getParent();
-            return new NamedLocation(parent);
+        CompletableFuture<Location> location = resolve(path);
+        return FileSystemProbe.shared().await(location, withName(path.toString(), path));
+    }
+
+    /**
+     * Creates a {@link Location} for the given path in background. When the path
+     * denotes a file, the location of its parent directory is created. If the
+     * file system does not answer in time, the path is used as is.
+     * 
+     * @param path {@link Path} of a directory or file
+     * @return {@link CompletableFuture} which completes with the
+     *         {@link Location}
+     */
+    public static CompletableFuture<Location> resolve(Path path) {
+        Objects.requireNonNull(path, "path must not be null");
+        Path parent = path.getParent();
+        if (null == parent) {
+            return CompletableFuture.completedFuture(withName(path.toString(), path));
         }
-        return withName(path.toString(), path);
+        return FileSystemProbe.shared()
+                              .isRegularFile(path)
+                              .thenApply(isFile -> isFile.booleanValue() ? new NamedLocation(parent)
+                                      : withName(path.toString(), path));
     }
 
     public static Location withName(String name, Path path) {
@@ -0,0 +1,211 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emits Java Flight Recorder events for the phases users perceive as slow:
+ * directory scans, publications of scan results, filtering, sorting and
+ * expansions of the directory tree.
+ * <p>
+ * This is the Java 11 variant from the multi-release JAR. Events are only
+ * created when they are enabled in the running recording, otherwise
+ * {@link RecordedPhase#none()} is returned. When the runtime does not contain
+ * the jdk.jfr module, nothing is recorded.
+ * <p>
+ * The module descriptor requires jdk.jfr statically. Modular applications
+ * therefore have to add the module with {@code --add-modules jdk.jfr} (or
+ * require it themselves), otherwise it is not resolved and
+ * {@link #areSupported()} returns false. On the class path it is always
+ * resolved.
+ * <p>
+ * The search text entered by the user is not recorded, only its length.
+ */
+public final class PerformanceEvents {
+
+    private static final String CATEGORY = "FXFileChooser";
+
+    private static final RecordedPhase NONE = RecordedPhase.none();
+
+    private static final boolean SUPPORTED = readFlightRecorderModule();
+
+    /*
+     * The module descriptor requires jdk.jfr statically, so that runtimes
+     * without it can still run the chooser. Readability must then be added
+     * explicitly when the module is present.
+     */
+    private static boolean readFlightRecorderModule() {
+        Module self = PerformanceEvents.class.getModule();
+        return ModuleLayer.boot().findModule("jdk.jfr").map(jfr -> {
+            self.addReads(jfr);
+            return Boolean.TRUE;
+        }).orElse(Boolean.FALSE).booleanValue();
+    }
+
+    private PerformanceEvents() {
+        /* not intended for instantiation */
+    }
+
+    public static boolean areSupported() {
+        return SUPPORTED;
+    }
+
+    public static RecordedPhase directoryScan(Path directory) {
+        if (!SUPPORTED)
+            return NONE;
+        DirectoryScan event = new DirectoryScan();
+        if (!event.isEnabled())
+            return NONE;
+        event.directory = String.valueOf(directory);
+        event.begin();
+        return entries -> {
+            event.entries = entries;
+            event.commit();
+        };
+    }
+
+    public static RecordedPhase publication(int items) {
+        if (!SUPPORTED)
+            return NONE;
+        Publication event = new Publication();
+        if (!event.isEnabled())
+            return NONE;
+        event.begin();
+        return published -> {
+            event.items = published;
+            event.commit();
+        };
+    }
+
+    public static RecordedPhase filter(String filter, String criterion, int files) {
+        if (!SUPPORTED)
+            return NONE;
+        Filter event = new Filter();
+        if (!event.isEnabled())
+            return NONE;
+        event.filter = filter;
+        event.criterionLength = null == criterion ? 0 : criterion.length();
+        event.files = files;
+        event.begin();
+        return matches -> {
+            event.matches = matches;
+            event.commit();
+        };
+    }
+
+    public static RecordedPhase sort(int files) {
+        if (!SUPPORTED)
+            return NONE;
+        Sort event = new Sort();
+        if (!event.isEnabled())
+            return NONE;
+        event.begin();
+        return sorted -> {
+            event.files = sorted;
+            event.commit();
+        };
+    }
+
+    public static RecordedPhase treeExpansion(Path directory) {
+        if (!SUPPORTED)
+            return NONE;
+        TreeExpansion event = new TreeExpansion();
+        if (!event.isEnabled())
+            return NONE;
+        event.directory = String.valueOf(directory);
+        event.begin();
+        return subDirectories -> {
+            event.subDirectories = subDirectories;
+            event.commit();
+        };
+    }
+
+    @Name("net.raumzeitfalle.fx.filechooser.DirectoryScan")
+    @Label("Directory Scan")
+    @Category(CATEGORY)
+    @Description("Lists a directory and indexes its files")
+    static final class DirectoryScan extends Event {
+
+        @Label("Directory")
+        String directory;
+
+        @Label("Entries")
+        long entries;
+    }
+
+    @Name("net.raumzeitfalle.fx.filechooser.Publication")
+    @Label("Publication")
+    @Category(CATEGORY)
+    @Description("Adds scanned files to the file list on the JavaFX application thread")
+    static final class Publication extends Event {
+
+        @Label("Items")
+        long items;
+    }
+
+    @Name("net.raumzeitfalle.fx.filechooser.Filter")
+    @Label("Filter")
+    @Category(CATEGORY)
+    @Description("Applies the path filter and search text to the file list")
+    static final class Filter extends Event {
+
+        @Label("Path Filter")
+        String filter;
+
+        @Label("Search Text Length")
+        int criterionLength;
+
+        @Label("Files")
+        long files;
+
+        @Label("Matches")
+        long matches;
+    }
+
+    @Name("net.raumzeitfalle.fx.filechooser.Sort")
+    @Label("Sort")
+    @Category(CATEGORY)
+    @Description("Sorts the file list")
+    static final class Sort extends Event {
+
+        @Label("Files")
+        long files;
+    }
+
+    @Name("net.raumzeitfalle.fx.filechooser.TreeExpansion")
+    @Label("Tree Expansion")
+    @Category(CATEGORY)
+    @Description("Reads the sub directories of an expanded directory tree item")
+    static final class TreeExpansion extends Event {
+
+        @Label("Directory")
+        String directory;
+
+        @Label("Sub Directories")
+        long subDirectories;
+    }
+}
@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the threads which perform blocking file system I/O.
+ * <p>
+ * This is the Java 21 variant from the multi-release JAR. Every task runs on
+ * its own virtual thread, so that many blocking metadata requests (e.g. against
+ * slow network shares) can be in flight without occupying platform threads.
+ * The number of tasks running at the same time is still bounded, further tasks
+ * wait for a permit.
+ */
+final class ScanningThreads {
+
+    /**
+     * Number of virtual threads which may run at the same time per platform
+     * worker of the Java 8 variant.
+     */
+    static final int VIRTUAL_THREADS_PER_WORKER = 64;
+
+    private ScanningThreads() {
+        /* not intended for instantiation */
+    }
+
+    static boolean areVirtual() {
+        return true;
+    }
+
+    static ExecutorService newExecutor(String name, int workers) {
+        ExecutorService threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        return new BoundedExecutor(threads, maximumWorkers(workers));
+    }
+
+    static int maximumWorkers(int workers) {
+        return workers * VIRTUAL_THREADS_PER_WORKER;
+    }
+
+    private static final class BoundedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService threads;
+
+        private final Semaphore permits;
+
+        private BoundedExecutor(ExecutorService threads, int permits) {
+            this.threads = threads;
+            this.permits = new Semaphore(permits, true);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            threads.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            threads.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return threads.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return threads.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return threads.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return threads.awaitTermination(timeout, unit);
+        }
+    }
+}
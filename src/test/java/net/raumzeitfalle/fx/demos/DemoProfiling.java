@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.demos;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javafx.application.Application;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.stage.Stage;
+import net.raumzeitfalle.fx.filechooser.FXFileChooserStage;
+import net.raumzeitfalle.fx.filechooser.Skin;
+import net.raumzeitfalle.fx.filechooser.SyntheticFileTree;
+
+/**
+ * Opens the file chooser in a reproducible tree of many files, so that
+ * profiling sessions (e.g. with JFR or VisualVM) see the same workload each
+ * time. Arguments: directory for the tree (defaults to a folder in
+ * java.io.tmpdir) and number of files (defaults to 200000). An existing tree is
+ * reused.
+ */
+public class DemoProfiling extends Application {
+
+    public static void main(String[] args) {
+        Application.launch(args);
+    }
+
+    @Override
+    public void start(Stage primaryStage) throws Exception {
+        Path tree = createTree();
+        Button button = new Button("Show File Chooser in " + tree);
+        FXFileChooserStage fc = FXFileChooserStage.create(Skin.DARK, tree);
+        button.setOnAction(evt -> fc.showOpenDialog(primaryStage));
+
+        Scene scene = new Scene(button);
+        primaryStage.setScene(scene);
+        primaryStage.setTitle("Profiling Demo");
+        primaryStage.show();
+    }
+
+    private Path createTree() throws Exception {
+        List<String> args = getParameters().getRaw();
+        int files = args.size() > 1 ? Integer.parseInt(args.get(1)) : 200_000;
+        Path tree = args.isEmpty() ? Paths.get(System.getProperty("java.io.tmpdir"), "fxfilechooser-profiling-" + files)
+                : Paths.get(args.get(0));
+        if (!Files.isDirectory(tree)) {
+            SyntheticFileTree.withSeed(42).files(files).build().createIn(tree);
+        }
+        return tree;
+    }
+}
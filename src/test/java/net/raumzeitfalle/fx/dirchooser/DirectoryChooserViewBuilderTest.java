@@ -0,0 +1,41 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.testfx.framework.junit5.ApplicationTest;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import net.raumzeitfalle.fx.filechooser.SceneGraphs;
+
+class DirectoryChooserViewBuilderTest extends ApplicationTest {
+
+    @Test
+    void that_programmatic_view_equals_fxml_view() throws Exception {
+        Parent loaded = FXMLLoader.load(DirectoryChooserView.class.getResource("DirectoryChooserView.fxml"));
+
+        Parent built = new DirectoryChooserViewBuilder().build();
+
+        assertEquals(SceneGraphs.describe(loaded), SceneGraphs.describe(built));
+    }
+}
@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+
+import net.raumzeitfalle.fx.filechooser.DirectoryCache;
+
+class DirectoryTreeItemTest extends ApplicationTest {
+
+    @Test
+    void that_items_are_probed_once_shown(@TempDir Path directory) throws Exception {
+        Files.createDirectory(directory.resolve("sub"));
+        DirectoryTreeItem classUnderTest = new DirectoryTreeItem(directory);
+        new DirectoryTreeItem("root").getChildren().add(classUnderTest);
+
+        WaitForAsyncUtils.sleep(200, TimeUnit.MILLISECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+        assertFalse(classUnderTest.hasSubDirectories(), "attached but not shown");
+
+        interact(() -> show(classUnderTest));
+
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, classUnderTest::hasSubDirectories);
+    }
+
+    @Test
+    void that_files_are_not_reported_with_sub_directories(@TempDir Path directory) throws Exception {
+        Path file = Files.createFile(directory.resolve("file.txt"));
+        DirectoryTreeItem classUnderTest = new DirectoryTreeItem(file);
+
+        interact(() -> show(classUnderTest));
+
+        WaitForAsyncUtils.sleep(200, TimeUnit.MILLISECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+        assertFalse(classUnderTest.hasSubDirectories());
+    }
+
+    @Test
+    void that_cached_sub_directories_spare_the_probe(@TempDir Path directory) throws Exception {
+        DirectoryCache<List<Path>> cache = new DirectoryCache<>(10, 1024 * 1024, DirectoryWalker::estimateSize);
+        cache.put(directory, DirectoryCache.lastModified(directory).get(),
+                Collections.singletonList(directory.resolve("known")));
+        DirectoryTreeItem classUnderTest = new DirectoryTreeItem(directory, true, cache);
+
+        interact(() -> show(classUnderTest));
+
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, classUnderTest::hasSubDirectories);
+        assertTrue(cache.getHits() > 0);
+    }
+
+    private static void show(DirectoryTreeItem item) {
+        DirectoryTreeCell cell = new DirectoryTreeCell();
+        cell.updateTreeItem(item);
+        cell.updateItem(item.getValue(), false);
+    }
+}
@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+class DirectoryTreePreloaderTest extends ApplicationTest {
+
+    @Test
+    void that_levels_below_children_are_read(@TempDir Path root) throws Exception {
+        Files.createDirectories(root.resolve("a/a1/a11"));
+        Files.createDirectories(root.resolve("b/b1"));
+        Files.createDirectories(root.resolve("b/b2"));
+        DirectoryTreeItem focus = new DirectoryTreeItem(root, true);
+        DirectoryTreeItem a = new DirectoryTreeItem(root.resolve("a"), true);
+        DirectoryTreeItem b = new DirectoryTreeItem(root.resolve("b"), true);
+        interact(() -> focus.getChildren().addAll(a, b));
+
+        DirectoryTreePreloader classUnderTest = new DirectoryTreePreloader(2);
+        interact(() -> classUnderTest.preload(focus));
+
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> 0 == classUnderTest.getRunningPreloads());
+        WaitForAsyncUtils.waitForFxEvents();
+        assertEquals(1, a.getChildren().size());
+        assertEquals(2, b.getChildren().size());
+        assertEquals(1, a.getChildren().get(0).getChildren().size(), "second level");
+        assertTrue(b.getChildren().get(0).getChildren().isEmpty());
+    }
+
+    @Test
+    void that_cancelled_preloads_do_not_change_the_tree(@TempDir Path root) throws Exception {
+        Files.createDirectories(root.resolve("a/a1"));
+        DirectoryTreeItem focus = new DirectoryTreeItem(root, true);
+        DirectoryTreeItem a = new DirectoryTreeItem(root.resolve("a"), true);
+        interact(() -> focus.getChildren().add(a));
+
+        DirectoryTreePreloader classUnderTest = new DirectoryTreePreloader(1);
+        interact(() -> {
+            classUnderTest.preload(focus);
+            classUnderTest.cancel();
+        });
+
+        WaitForAsyncUtils.sleep(200, TimeUnit.MILLISECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+        assertTrue(a.getChildren().isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+class DirectoryTreeUpdateTaskTest extends ApplicationTest {
+
+    @Test
+    void that_children_are_updated(@TempDir Path root) throws Exception {
+        Files.createDirectories(root.resolve("a"));
+        Files.createDirectories(root.resolve("b"));
+        DirectoryTreeItem item = new DirectoryTreeItem(root, true);
+
+        new DirectoryTreeUpdateTask(root, item, path -> { /* nothing to finalize */ }).run();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertEquals(2, item.getChildren().size());
+    }
+
+    @Test
+    void that_deleted_sub_directories_are_removed(@TempDir Path root) throws Exception {
+        Files.createDirectories(root.resolve("a"));
+        DirectoryTreeItem item = new DirectoryTreeItem(root, true);
+        interact(() -> item.getChildren().add(new DirectoryTreeItem(root.resolve("a"), true)));
+        Files.delete(root.resolve("a"));
+
+        new DirectoryTreeUpdateTask(root, item, path -> { /* nothing to finalize */ }).run();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertTrue(item.getChildren().isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryWalkerTest {
+
+    @Test
+    void that_listing_progress_counts_files_as_well(@TempDir Path directory) throws Exception {
+        for (int i = 0; i < 2000; i++) {
+            Files.createFile(directory.resolve("file-" + i + ".txt"));
+        }
+        Files.createDirectory(directory.resolve("b"));
+        Files.createDirectory(directory.resolve("A"));
+        List<Long> progress = new ArrayList<>();
+
+        List<Path> subDirectories = new DirectoryWalker(directory).sortedSubDirectories(() -> false,
+                progress::add);
+
+        assertEquals(Arrays.asList(directory.resolve("A"), directory.resolve("b")), subDirectories);
+        assertEquals(2002, progress.size(), "progress reported per entry");
+        assertEquals(Long.valueOf(2002), progress.get(progress.size() - 1), "entries visited");
+    }
+}
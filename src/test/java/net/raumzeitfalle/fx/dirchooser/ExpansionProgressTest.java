@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.dirchooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpansionProgressTest {
+
+    private long now = 0;
+
+    private final ExpansionProgress classUnderTest = new ExpansionProgress(() -> now);
+
+    private Locale defaultLocale;
+
+    @BeforeEach
+    void useEnglishNumbers() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.ENGLISH);
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void that_listing_reports_throughput_without_total() {
+        advanceMillis(500);
+        classUnderTest.listed(1000);
+
+        assertEquals(-1, classUnderTest.getTotal());
+        assertEquals(2000, classUnderTest.getEntriesPerSecond(), 0.001);
+        assertEquals(-1, classUnderTest.getRemainingSeconds());
+        assertEquals("Reading directory: 1,000 entries, 2,000 entries/s", classUnderTest.describe());
+    }
+
+    @Test
+    void that_remaining_time_is_estimated_once_total_is_known() {
+        advanceMillis(2000);
+        classUnderTest.listed(20_000);
+        classUnderTest.created(0, 20_000);
+
+        advanceMillis(1000);
+        classUnderTest.created(5_000, 20_000);
+
+        assertEquals(5000, classUnderTest.getEntriesPerSecond(), 0.001);
+        assertEquals(3, classUnderTest.getRemainingSeconds());
+        assertEquals("5,000 of 20,000 entries, 5,000 entries/s, about 3 s remaining", classUnderTest.describe());
+    }
+
+    @Test
+    void that_missing_progress_is_reported_as_stalled() {
+        advanceMillis(1000);
+        classUnderTest.listed(10);
+        assertEquals(0, classUnderTest.getStalledSeconds());
+
+        advanceMillis(2000);
+        assertEquals(0, classUnderTest.getStalledSeconds());
+
+        advanceMillis(10_000);
+        assertEquals(12, classUnderTest.getStalledSeconds());
+        assertEquals("Reading directory: 10 entries, 10 entries/s, no progress for 12 s", classUnderTest.describe());
+    }
+
+    @Test
+    void that_completed_expansion_has_no_remaining_time() {
+        classUnderTest.created(0, 100);
+        advanceMillis(100);
+        classUnderTest.created(100, 100);
+
+        assertEquals(0, classUnderTest.getRemainingSeconds());
+        assertEquals("100 of 100 entries, 1,000 entries/s", classUnderTest.describe());
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
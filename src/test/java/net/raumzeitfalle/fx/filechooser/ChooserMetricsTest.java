@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ChooserMetricsTest {
+
+    private final ChooserMetrics classUnderTest = new ChooserMetrics();
+
+    @Test
+    void that_latencies_are_counted_in_power_of_two_buckets() {
+        assertEquals(0, LatencyDistribution.bucketOf(999));
+        assertEquals(1, LatencyDistribution.bucketOf(1_000));
+        assertEquals(2, LatencyDistribution.bucketOf(3_999));
+        assertEquals(10, LatencyDistribution.bucketOf(TimeUnit.MILLISECONDS.toNanos(1)));
+        assertEquals(LatencyDistribution.BUCKETS - 1, LatencyDistribution.bucketOf(Long.MAX_VALUE));
+        assertEquals(0, LatencyDistribution.bucketOf(-1));
+    }
+
+    @Test
+    void that_percentiles_report_upper_bound_of_bucket() {
+        for (int i = 0; i < 99; i++) {
+            classUnderTest.attributesRead(500);
+        }
+        classUnderTest.attributesRead(TimeUnit.MILLISECONDS.toNanos(3));
+
+        LatencyDistribution reads = classUnderTest.snapshot().getAttributeReads();
+
+        assertEquals(100, reads.getCount());
+        assertEquals(99, reads.getCount(0));
+        assertEquals(1_000, reads.getPercentileNanos(50));
+        assertEquals(1_000, reads.getPercentileNanos(99));
+        assertEquals(4_096_000, reads.getPercentileNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> reads.getPercentileNanos(101));
+    }
+
+    @Test
+    void that_empty_distribution_reports_zero() {
+        LatencyDistribution filters = classUnderTest.snapshot().getFilterLatencies();
+
+        assertEquals(0, filters.getCount());
+        assertEquals(0, filters.getPercentileNanos(99));
+    }
+
+    @Test
+    void that_properties_are_updated_when_scan_finishes() {
+        classUnderTest.listingRequested(true);
+        classUnderTest.listingRequested(false);
+        classUnderTest.listingRequested(false);
+        classUnderTest.listingRequested(true);
+        classUnderTest.getPublicationStatistics().itemsQueued(10);
+        classUnderTest.getPublicationStatistics().itemsPublished(10, TimeUnit.MILLISECONDS.toNanos(20));
+
+        classUnderTest.scanFinished(5_000, 2.0);
+
+        assertEquals(2.0, classUnderTest.scanDurationProperty().get());
+        assertEquals(5_000, classUnderTest.scannedEntriesProperty().get());
+        assertEquals(2_500, classUnderTest.entriesPerSecondProperty().get());
+        assertEquals(20.0, classUnderTest.publicationLagProperty().get());
+        assertEquals(0.5, classUnderTest.cacheHitRateProperty().get());
+    }
+
+    @Test
+    void that_snapshot_keeps_values_of_its_time() {
+        classUnderTest.scanFinished(100, 0.5);
+        classUnderTest.filterApplied(TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertEquals(7.0, classUnderTest.filterLatencyProperty().get(), 1E-6);
+
+        MetricsSnapshot snapshot = classUnderTest.snapshot();
+        classUnderTest.scanFinished(0, 0);
+        classUnderTest.filterApplied(1);
+
+        assertEquals(0.5, snapshot.getScanDuration());
+        assertEquals(100, snapshot.getScannedEntries());
+        assertEquals(200, snapshot.getEntriesPerSecond());
+        assertEquals(1, snapshot.getFilterLatencies().getCount());
+        assertEquals(0, snapshot.getCacheHitRate());
+        assertEquals(0, classUnderTest.snapshot().getEntriesPerSecond());
+    }
+}
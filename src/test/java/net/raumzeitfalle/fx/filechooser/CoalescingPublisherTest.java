@@ -0,0 +1,94 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+class CoalescingPublisherTest {
+
+    private final ObservableList<IndexedPath> target = FXCollections.observableArrayList();
+
+    private final Queue<Runnable> fxThread = new ConcurrentLinkedQueue<>();
+
+    private final PublicationStatistics statistics = new PublicationStatistics();
+
+    private final AtomicInteger published = new AtomicInteger(0);
+
+    private volatile long now = 0;
+
+    private final CoalescingPublisher classUnderTest = new CoalescingPublisher(target, statistics, () -> now,
+            published::incrementAndGet);
+
+    @Test
+    void that_only_one_batch_is_in_flight() {
+        assertTrue(classUnderTest.tryClaim());
+        assertFalse(classUnderTest.tryClaim(), "slot is taken");
+        assertFalse(classUnderTest.isIdle());
+
+        classUnderTest.release();
+
+        assertTrue(classUnderTest.isIdle());
+        assertTrue(classUnderTest.tryClaim());
+    }
+
+    @Test
+    void that_batch_is_published_on_fx_thread() {
+        now = 1_000;
+        assertTrue(classUnderTest.tryClaim());
+        classUnderTest.publish(items(3), 0, fxThread::add);
+
+        assertEquals(1, fxThread.size(), "scheduled updates");
+        assertEquals(3, statistics.getQueuedItems());
+        assertTrue(target.isEmpty());
+
+        fxThread.remove().run();
+
+        assertEquals(3, target.size());
+        assertEquals(1, published.get(), "producer notified");
+        assertFalse(classUnderTest.isIdle(), "slot is released by the producer");
+        assertEquals(0, statistics.getQueuedItems());
+        assertEquals(3, statistics.getPublishedItems());
+        assertEquals(1_000, statistics.getLastLatencyNanos());
+    }
+
+    private static List<IndexedPath> items(int count) {
+        List<IndexedPath> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new IndexedPath(Paths.get("file" + i + ".txt"), FileTime.from(i, TimeUnit.SECONDS)));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryCacheTest {
+
+    @TempDir
+    Path root;
+
+    private Path a;
+
+    private Path b;
+
+    private Path c;
+
+    @BeforeEach
+    void prepare() throws IOException {
+        a = Files.createDirectory(root.resolve("a"));
+        b = Files.createDirectory(root.resolve("b"));
+        c = Files.createDirectory(root.resolve("c"));
+    }
+
+    @Test
+    void that_value_is_returned_while_directory_is_unmodified() {
+        DirectoryCache<String> classUnderTest = new DirectoryCache<>(10, 1000, String::length);
+
+        classUnderTest.put(a, lastModified(a), "content of a");
+
+        assertEquals(Optional.of("content of a"), classUnderTest.get(a));
+        assertEquals(Optional.empty(), classUnderTest.get(b));
+        assertEquals(1, classUnderTest.getHits());
+        assertEquals(1, classUnderTest.getMisses());
+    }
+
+    @Test
+    void that_value_is_invalidated_when_directory_has_been_modified() throws IOException {
+        DirectoryCache<String> classUnderTest = new DirectoryCache<>(10, 1000, String::length);
+        classUnderTest.put(a, lastModified(a), "content of a");
+
+        Files.setLastModifiedTime(a, FileTime.from(lastModified(a).to(TimeUnit.SECONDS) + 10, TimeUnit.SECONDS));
+
+        assertFalse(classUnderTest.get(a).isPresent());
+        assertEquals(0, classUnderTest.size());
+        assertEquals(0, classUnderTest.getWeight());
+    }
+
+    @Test
+    void that_value_is_invalidated_when_directory_disappeared() throws IOException {
+        DirectoryCache<String> classUnderTest = new DirectoryCache<>(10, 1000, String::length);
+        classUnderTest.put(c, lastModified(c), "content of c");
+
+        Files.delete(c);
+
+        assertFalse(classUnderTest.get(c).isPresent());
+    }
+
+    @Test
+    void that_least_recently_used_entry_is_evicted_when_full() {
+        DirectoryCache<String> classUnderTest = new DirectoryCache<>(2, 1000, String::length);
+        classUnderTest.put(a, lastModified(a), "a");
+        classUnderTest.put(b, lastModified(b), "b");
+
+        classUnderTest.get(a);
+        classUnderTest.put(c, lastModified(c), "c");
+
+        assertEquals(Arrays.asList(a, c), Arrays.asList(classUnderTest.snapshot().keySet().toArray()));
+        assertEquals(1, classUnderTest.getEvictions());
+    }
+
+    @Test
+    void that_entries_are_evicted_when_memory_budget_is_exceeded() {
+        DirectoryCache<String> classUnderTest = new DirectoryCache<>(10, 10, String::length);
+        classUnderTest.put(a, lastModified(a), "aaaa");
+        classUnderTest.put(b, lastModified(b), "bbbb");
+        assertEquals(8, classUnderTest.getWeight());
+
+        classUnderTest.put(c, lastModified(c), "cccc");
+
+        assertEquals(2, classUnderTest.size());
+        assertEquals(8, classUnderTest.getWeight());
+        assertFalse(classUnderTest.get(a).isPresent());
+    }
+
+    @Test
+    void that_replacing_a_value_updates_the_weight() {
+        DirectoryCache<String> classUnderTest = new DirectoryCache<>(10, 100, String::length);
+        classUnderTest.put(a, lastModified(a), "aaaa");
+        classUnderTest.put(a, lastModified(a), "aa");
+
+        assertEquals(1, classUnderTest.size());
+        assertEquals(2, classUnderTest.getWeight());
+
+        classUnderTest.invalidate(a);
+        assertEquals(0, classUnderTest.getWeight());
+    }
+
+    @Test
+    void that_disabled_cache_stores_nothing() {
+        DirectoryCache<String> classUnderTest = DirectoryCache.disabled();
+        classUnderTest.put(a, lastModified(a), "a");
+
+        assertEquals(0, classUnderTest.size());
+        assertFalse(classUnderTest.get(a).isPresent());
+    }
+
+    @Test
+    void that_negative_limits_are_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new DirectoryCache<String>(-1, 10, String::length));
+        assertThrows(IllegalArgumentException.class, () -> new DirectoryCache<String>(1, -10, String::length));
+    }
+
+    private static FileTime lastModified(Path directory) {
+        Optional<FileTime> time = DirectoryCache.lastModified(directory);
+        assertTrue(time.isPresent());
+        return time.get();
+    }
+}
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.testfx.util.WaitForAsyncUtils;
+
+import javafx.scene.control.ButtonType;
+import net.raumzeitfalle.fx.filechooser.locations.LocationHistory;
+
+class FXFileChooserDialogTest extends FxTestTemplate {
+
+    private final Path selected = Paths.get("TestData/SomeFiles/TestFile1.txt");
+
+    @Test
+    void that_okay_records_the_location_of_the_selected_file() throws Exception {
+        FileChooserModel model = FileChooserModel.startingIn(selected.getParent());
+        LocationHistory history = LocationHistory.inMemory(10);
+        model.setLocationHistory(history);
+
+        Path result = WaitForAsyncUtils.asyncFx(() -> {
+            FXFileChooserDialog dialog = FXFileChooserDialog.create(Skin.MODENA, model);
+            model.setSelectedFile(IndexedPath.valueOf(selected));
+            return dialog.getResultConverter().call(ButtonType.OK);
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(selected.toAbsolutePath(), result.toAbsolutePath());
+        assertEquals(1, history.size());
+        assertEquals(selected.getParent().toAbsolutePath().normalize(),
+                history.getTopLocations(1).get(0).getPath());
+    }
+}
@@ -25,8 +25,11 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.Test;
+import org.testfx.util.WaitForAsyncUtils;
 
 class FileChooserModelFactoryMethodsFxTest extends FxTestTemplate {
 	
@@ -51,7 +54,7 @@ class FileChooserModelFactoryMethodsFxTest extends FxTestTemplate {
 	}
 	
 	@Test
-	void changingDirectory_updateFilesIn() throws InterruptedException, ExecutionException {
+	void changingDirectory_updateFilesIn() throws InterruptedException, ExecutionException, TimeoutException {
 		
 	
 		assertNotEquals(testRoot.isAbsolute(), 
@@ -60,6 +63,10 @@ class FileChooserModelFactoryMethodsFxTest extends FxTestTemplate {
 		
 		// Consider moving the service into the controller out of the model
 		Invoke.andWait(()->classUnderTest.getUpdateService().restartIn(testRoot));
+		
+		// the directory is checked in background, the search path changes afterwards
+		WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS,
+				()->testRoot.toAbsolutePath().equals(classUnderTest.currentSearchPath().get().toAbsolutePath()));
 			
 		assertEquals(testRoot.toAbsolutePath(), 
 					 classUnderTest.currentSearchPath().get().toAbsolutePath(),
@@ -21,6 +21,9 @@ package net.raumzeitfalle.fx.filechooser;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
@@ -31,6 +34,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -43,6 +47,9 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import net.raumzeitfalle.fx.filechooser.locations.Location;
+import net.raumzeitfalle.fx.filechooser.locations.LocationHistory;
 
 class FileChooserModelTest {
 	
@@ -123,6 +130,64 @@ class FileChooserModelTest {
 		
 	}
 
+	@Test
+	void acceptedSelectionIsRecordedInLocationHistory() {
+		
+		LocationHistory history = LocationHistory.inMemory(10);
+		history.record(TEST_ROOT.resolve("SomeFiles"));
+		classUnderTest.setLocationHistory(history);
+		
+		assertTrue(classUnderTest.getLocations()
+								 .stream()
+								 .map(Location::getPath)
+								 .anyMatch(TEST_ROOT.resolve("SomeFiles").toAbsolutePath().normalize()::equals));
+		
+		classUnderTest.setSelectedFile(IndexedPath.valueOf(TEST_ROOT.resolve("SomeFiles").resolve("TestFile1.txt")));
+		classUnderTest.acceptSelection();
+		
+		assertEquals(2, history.size());
+	}
+
+	@Test
+	void historyLocationsAreRefreshedWithTheTopDirectories() {
+		
+		LocationHistory history = LocationHistory.inMemory(10);
+		history.record(TEST_ROOT.resolve("SomeFiles"));
+		classUnderTest.setLocationHistory(history);
+		
+		for (int i = 0; i < FileChooserModel.HISTORY_LOCATIONS; i++) {
+			history.record(TEST_ROOT.resolve("Directory" + i));
+			history.record(TEST_ROOT.resolve("Directory" + i));
+		}
+		classUnderTest.refreshHistoryLocations();
+		
+		List<Path> offered = classUnderTest.getLocations()
+										   .stream()
+										   .map(Location::getPath)
+										   .collect(Collectors.toList());
+		assertTrue(offered.contains(TEST_ROOT.resolve("Directory0").toAbsolutePath().normalize()));
+		assertFalse(offered.contains(TEST_ROOT.resolve("SomeFiles").toAbsolutePath().normalize()));
+	}
+
+	@Test
+	void reuseClearsSelectionAndRescansOnlyWhenRequested() {
+		
+		classUnderTest.getUpdateService().restartIn(TEST_ROOT.resolve("SomeFiles"));
+		classUnderTest.setSelectedFile(IndexedPath.valueOf(TEST_ROOT.resolve("SomeFiles").resolve("TestFile1.txt")));
+		((FilteredList<IndexedPath>) classUnderTest.getFilteredPaths()).getSource().clear();
+		
+		classUnderTest.prepareForReuse(ReusePolicy.keepState());
+		
+		assertNotNull(classUnderTest.getSelectedFile());
+		assertTrue(classUnderTest.getFilteredPaths().isEmpty());
+		
+		classUnderTest.prepareForReuse(ReusePolicy.resetState().withRescan());
+		
+		assertNull(classUnderTest.getSelectedFile());
+		assertTrue(classUnderTest.invalidSelectionProperty().get());
+		assertEquals(11, classUnderTest.getFilteredPaths().size());
+	}
+
 	private FileChooserModel createTestModel(Path testRoot, List<IndexedPath> paths) {
 		ObservableList<IndexedPath> observableList = FXCollections.observableArrayList(paths);
 
@@ -181,6 +246,9 @@ class FileChooserModelTest {
 
 				@Override
 				public void cancelUpdate() { /* nothing to do here */ }
+
+				@Override
+				public void dispose() { /* nothing to do here */ }
 			};
 	}
 
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+class FileChooserViewBuilderTest extends FxTestTemplate {
+
+    @AfterEach
+    void restoreDefault() {
+        ViewConstruction.select(ViewConstruction.FXML);
+    }
+
+    @Test
+    void that_programmatic_view_equals_fxml_view() throws Exception {
+        Parent loaded = FXMLLoader.load(FileChooserView.class.getResource("FileChooserView.fxml"));
+
+        Parent built = new FileChooserViewBuilder().build();
+
+        assertEquals(SceneGraphs.describe(loaded), SceneGraphs.describe(built));
+    }
+
+    @Test
+    void that_fxml_is_the_default() {
+        assertSame(ViewConstruction.FXML, ViewConstruction.selected());
+
+        ViewConstruction.select(ViewConstruction.PROGRAMMATIC);
+
+        assertSame(ViewConstruction.PROGRAMMATIC, ViewConstruction.selected());
+    }
+}
@@ -0,0 +1,206 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+class FileSystemProbeTest {
+
+    private static final long TIMEOUT = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final long HEDGE_DELAY = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final long COOLDOWN = TimeUnit.SECONDS.toNanos(30);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger attempts = new AtomicInteger(0);
+
+    private volatile long now = 0;
+
+    @AfterEach
+    void cleanup() {
+        release.countDown();
+        timer.shutdownNow();
+    }
+
+    @Test
+    void that_existing_directory_is_found() throws Exception {
+        FileSystemProbe classUnderTest = createProbe(Runnable::run);
+
+        assertTrue(classUnderTest.exists(Paths.get("TestData/SomeFiles")).get(5, TimeUnit.SECONDS));
+        assertTrue(classUnderTest.isDirectory(Paths.get("TestData/SomeFiles")).get(5, TimeUnit.SECONDS));
+        assertFalse(classUnderTest.isRegularFile(Paths.get("TestData/SomeFiles")).get(5, TimeUnit.SECONDS));
+        assertFalse(classUnderTest.exists(Paths.get("TestData/DoesNotExist")).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void that_first_accessible_parent_directory_is_found() throws Exception {
+        FileSystemProbe classUnderTest = createProbe(Runnable::run);
+
+        Optional<Path> directory = classUnderTest
+                .firstAccessibleDirectory(Paths.get("TestData/SomeFiles/NotExisting/TestFile1.txt"))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Optional.of(Paths.get("TestData/SomeFiles")), directory);
+    }
+
+    @Test
+    void that_hanging_check_times_out_and_share_is_remembered_as_unreachable() throws Exception {
+        FileSystemProbe classUnderTest = createProbe(threadPerAttempt());
+        Path path = Paths.get("TestData/SomeFiles");
+
+        long start = System.nanoTime();
+        assertFalse(classUnderTest.evaluate(path, this::hanging).get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TIMEOUT, "waited for timeout");
+        assertEquals(2, attempts.get(), "hedged attempts");
+        assertTrue(classUnderTest.isKnownUnreachable(path));
+
+        assertFalse(classUnderTest.exists(path).getNow(true), "answered without file system access");
+        assertEquals(2, attempts.get());
+
+        now += COOLDOWN;
+        assertFalse(classUnderTest.isKnownUnreachable(path));
+    }
+
+    @Test
+    void that_second_attempt_answers_when_first_attempt_hangs() throws Exception {
+        FileSystemProbe classUnderTest = createProbe(threadPerAttempt());
+        Path path = Paths.get("TestData/SomeFiles");
+
+        assertTrue(classUnderTest.evaluate(path, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                awaitRelease();
+            }
+            return Files.exists(path);
+        }).get(5, TimeUnit.SECONDS));
+        assertFalse(classUnderTest.isKnownUnreachable(path));
+    }
+
+    @Test
+    void that_await_returns_fallback_when_check_does_not_complete() {
+        FileSystemProbe classUnderTest = createProbe(threadPerAttempt());
+
+        assertFalse(classUnderTest.await(classUnderTest.evaluate(Paths.get("TestData"), this::hanging), false));
+    }
+
+    @Test
+    @EnabledOnOs({ OS.LINUX, OS.MAC })
+    void that_dead_share_does_not_make_other_shares_unreachable() throws Exception {
+        ExecutorService twoWorkers = Executors.newFixedThreadPool(2);
+        try {
+            FileSystemProbe classUnderTest = createProbe(twoWorkers);
+            Path dead = Paths.get("/mnt/dead-share/folder");
+            Path healthy = Paths.get("TestData/SomeFiles");
+
+            assertFalse(classUnderTest.evaluate(dead, this::hanging).get(5, TimeUnit.SECONDS));
+            assertEquals(FileSystemProbe.MAX_ATTEMPTS_PER_SHARE, attempts.get(), "all workers hang");
+            assertTrue(classUnderTest.isKnownUnreachable(dead));
+            assertFalse(classUnderTest.evaluate(dead, this::hanging).getNow(true));
+
+            CompletableFuture<Boolean> waitingForWorker = classUnderTest.exists(healthy);
+            Thread.sleep(3 * TimeUnit.NANOSECONDS.toMillis(TIMEOUT));
+            assertFalse(waitingForWorker.isDone(), "no timeout while waiting for a worker");
+
+            release.countDown();
+            assertTrue(waitingForWorker.get(5, TimeUnit.SECONDS));
+            assertFalse(classUnderTest.isKnownUnreachable(healthy));
+        } finally {
+            twoWorkers.shutdownNow();
+        }
+    }
+
+    @Test
+    void that_timers_are_cancelled_once_check_completes() throws Exception {
+        ScheduledThreadPoolExecutor timers = new ScheduledThreadPoolExecutor(1);
+        timers.setRemoveOnCancelPolicy(true);
+        try {
+            FileSystemProbe classUnderTest = new FileSystemProbe(threadPerAttempt(), timers, () -> now, TIMEOUT,
+                    HEDGE_DELAY, COOLDOWN);
+
+            assertTrue(classUnderTest.exists(Paths.get("TestData/SomeFiles")).get(5, TimeUnit.SECONDS));
+
+            assertTrue(timers.getQueue().isEmpty(), "no pending hedge or timeout");
+        } finally {
+            timers.shutdownNow();
+        }
+    }
+
+    @Test
+    @EnabledOnOs({ OS.LINUX, OS.MAC })
+    void that_shares_are_mount_points_below_root() {
+        assertEquals(Paths.get("/mnt/share"), FileSystemProbe.shareOf(Paths.get("/mnt/share/folder/file.txt")));
+        assertEquals(Paths.get("/mnt"), FileSystemProbe.shareOf(Paths.get("/mnt")));
+        assertEquals(Paths.get("/"), FileSystemProbe.shareOf(Paths.get("/")));
+    }
+
+    @Test
+    @EnabledOnOs(OS.WINDOWS)
+    void that_shares_are_roots_on_windows() {
+        assertEquals(Paths.get("\\\\server\\share\\"),
+                FileSystemProbe.shareOf(Paths.get("\\\\server\\share\\folder\\file.txt")));
+        assertEquals(Paths.get("C:\\"), FileSystemProbe.shareOf(Paths.get("C:\\Users\\file.txt")));
+    }
+
+    private FileSystemProbe createProbe(Executor io) {
+        return new FileSystemProbe(io, timer, () -> now, TIMEOUT, HEDGE_DELAY, COOLDOWN);
+    }
+
+    private static Executor threadPerAttempt() {
+        return command -> new Thread(command).start();
+    }
+
+    private boolean hanging() {
+        attempts.incrementAndGet();
+        awaitRelease();
+        return true;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
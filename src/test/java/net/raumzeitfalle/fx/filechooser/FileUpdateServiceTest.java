@@ -20,6 +20,8 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Path;
@@ -28,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.testfx.util.WaitForAsyncUtils;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -173,6 +176,9 @@ class FileUpdateServiceTest extends FxTestTemplate {
 		assertEquals(12, serviceExecResult.getResult(), "# of items in directory to be processed");
 		assertEquals(11, paths.size(), "# of files collected");
 		
+		WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS,
+				() -> file.getParent().equals(serviceUnderTest.searchPathProperty().getValue()));
+		
 	}
 	
 
@@ -192,5 +198,18 @@ class FileUpdateServiceTest extends FxTestTemplate {
 		assertTrue(wasRemovedProperly);
 				
 	}
+
+	@Test
+	void dispose_deregistersShutDownHook() throws Exception {
+		
+		FileUpdateService serviceUnderTest = new FileUpdateService(Paths.get("./"), FXCollections.observableArrayList());
+		Thread shutdownHook = serviceUnderTest.getShutdownThread();
+		
+		serviceUnderTest.dispose();
+		
+		assertNull(serviceUnderTest.getShutdownThread());
+		assertFalse(Runtime.getRuntime().removeShutdownHook(shutdownHook));
+		
+	}
 		
 }
@@ -24,10 +24,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -87,6 +93,60 @@ class FindFilesTaskTest extends FxTestTemplate {
 	}
 
 
+	@Test
+	void indexing_files_concurrently() throws Exception {
+		
+		classUnderTest = new FindFilesTask(searchLocation, consumerCollection);
+		File[] files = searchLocation.toFile().listFiles();
+		RefreshBuffer buffer = RefreshBuffer.get(classUnderTest, files.length, consumerCollection,
+				new PublicationStatistics());
+		Invoke.andWait(consumerCollection::clear);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			classUnderTest.indexConcurrently(files, buffer, executor, System.currentTimeMillis());
+		} finally {
+			executor.shutdown();
+		}
+		
+		Awaitility.await()
+				  .atMost(Duration.ofSeconds(30))
+				  .until(consumerCollection::size, size -> size == 11);
+		
+		assertTrue(consumerCollection.stream()
+									 .map(IndexedPath::toString)
+									 .anyMatch("TestFile1.txt"::equals));
+	}
+
+	@Test
+	void cached_listing_is_shown_unless_refreshed(@TempDir Path directory) throws Exception {
+		
+		Files.createFile(directory.resolve("actual.txt"));
+		DirectoryCache<List<IndexedPath>> listings = new DirectoryCache<>(10, 1024 * 1024,
+				FileListingCache::estimateSize);
+		Path key = FileListingCache.keyOf(directory);
+		listings.put(key, DirectoryCache.lastModified(key).get(),
+				Collections.singletonList(IndexedPath.valueOf(directory.resolve("cached.txt"))));
+
+		ChooserMetrics metrics = new ChooserMetrics();
+		classUnderTest = new FindFilesTask(directory, consumerCollection, metrics, listings, true);
+		classUnderTest.call();
+		Awaitility.await()
+				  .atMost(Duration.ofSeconds(30))
+				  .until(() -> consumerCollection.size() == 1 && "cached.txt".equals(consumerCollection.get(0).toString()));
+
+		assertEquals(1, metrics.snapshot().getCacheHits(), "cached listing is counted as hit");
+
+		classUnderTest = new FindFilesTask(directory, consumerCollection, metrics, listings, false);
+		classUnderTest.call();
+		Awaitility.await()
+				  .atMost(Duration.ofSeconds(30))
+				  .until(() -> consumerCollection.size() == 1 && "actual.txt".equals(consumerCollection.get(0).toString()));
+
+		assertEquals("actual.txt", listings.get(key).get().get(0).toString(), "listing of scan is cached");
+		assertEquals(1, metrics.snapshot().getAttributeReads().getCount(), "attribute reads of scan are recorded");
+	}
+
 	@Test
 	void runningTheTask_inEmptyFolder(@TempDir Path emptyDirectory) throws Exception {
 
@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Observes pulses of the JavaFX application thread. Animation timers run at
+ * the beginning of each pulse, before layout and rendering, so the pulse in
+ * which a condition is first seen is the one which paints its result.
+ */
+final class FrameProbe {
+
+    private FrameProbe() {
+        /* static helper, not intended for instantiation */
+    }
+
+    /**
+     * @param condition Evaluated on the JavaFX application thread once per pulse
+     * @return {@link System#nanoTime()} of the first pulse in which the condition
+     *         holds, cancelling the future stops observing pulses
+     */
+    static CompletableFuture<Long> firstFrame(BooleanSupplier condition) {
+        CompletableFuture<Long> frame = new CompletableFuture<>();
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (frame.isDone()) {
+                    stop();
+                } else if (condition.getAsBoolean()) {
+                    frame.complete(System.nanoTime());
+                    stop();
+                }
+            }
+        };
+        Platform.runLater(timer::start);
+        return frame;
+    }
+
+    /**
+     * @param frames   Number of intervals to measure
+     * @param perFrame Action run at the beginning of each pulse, e.g. scrolling
+     * @return intervals between consecutive pulses in nanoseconds
+     */
+    static CompletableFuture<long[]> frameIntervals(int frames, Runnable perFrame) {
+        CompletableFuture<long[]> intervals = new CompletableFuture<>();
+        AnimationTimer timer = new AnimationTimer() {
+
+            private final long[] measured = new long[frames];
+
+            private long previous = -1;
+
+            private int frame = 0;
+
+            @Override
+            public void handle(long now) {
+                if (intervals.isDone()) {
+                    stop();
+                    return;
+                }
+                if (previous >= 0) {
+                    measured[frame++] = now - previous;
+                }
+                previous = now;
+                if (frame == frames) {
+                    intervals.complete(measured);
+                    stop();
+                } else {
+                    perFrame.run();
+                }
+            }
+        };
+        Platform.runLater(timer::start);
+        return intervals;
+    }
+}
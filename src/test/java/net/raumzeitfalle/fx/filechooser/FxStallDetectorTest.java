@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FxStallDetectorTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final Queue<Runnable> fxThread = new ArrayDeque<>();
+
+    private final List<FxStall> stalls = new ArrayList<>();
+
+    private long now = 0;
+
+    private FxStallDetector classUnderTest;
+
+    @BeforeEach
+    void prepare() {
+        classUnderTest = new FxStallDetector(THRESHOLD, fxThread::add, () -> now);
+        classUnderTest.addListener(stalls::add);
+    }
+
+    private void runFxThread() {
+        while (!fxThread.isEmpty()) {
+            fxThread.remove().run();
+        }
+    }
+
+    @Test
+    void that_heartbeats_within_threshold_are_no_stalls() {
+        classUnderTest.check();
+        now += THRESHOLD / 2;
+        classUnderTest.check();
+        runFxThread();
+
+        assertEquals(0, classUnderTest.getStalls());
+        assertEquals(1, classUnderTest.getLatencies().getCount());
+        assertTrue(stalls.isEmpty());
+    }
+
+    @Test
+    void that_only_one_heartbeat_is_outstanding() {
+        classUnderTest.check();
+        classUnderTest.check();
+        classUnderTest.check();
+
+        assertEquals(1, fxThread.size());
+    }
+
+    @Test
+    void that_overdue_heartbeat_is_reported_with_stack_of_fx_thread() {
+        classUnderTest.check();
+        runFxThread();
+
+        classUnderTest.check();
+        now += THRESHOLD;
+        classUnderTest.check();
+        now += THRESHOLD;
+        runFxThread();
+
+        assertEquals(1, classUnderTest.getStalls());
+        assertEquals(1, stalls.size());
+        FxStall stall = stalls.get(0);
+        assertEquals(2 * THRESHOLD, stall.getDurationNanos());
+        assertTrue(Arrays.stream(stall.getStackTrace())
+                         .anyMatch(frame -> frame.getClassName().equals(FxStallDetectorTest.class.getName())),
+                "stack of the thread which processed the heartbeat");
+    }
+
+    @Test
+    void that_stalls_are_counted_by_observing_metrics() {
+        ChooserMetrics metrics = new ChooserMetrics();
+        metrics.observe(classUnderTest);
+
+        classUnderTest.check();
+        now += THRESHOLD;
+        classUnderTest.check();
+        runFxThread();
+
+        assertEquals(1, metrics.snapshot().getFxThreadStalls());
+        assertEquals(1, metrics.snapshot().getFxThreadLatencies().getCount());
+        assertEquals(THRESHOLD, metrics.lastFxThreadStallProperty().get().getDurationNanos());
+
+        metrics.observe(null);
+        classUnderTest.check();
+        now += THRESHOLD;
+        classUnderTest.check();
+        runFxThread();
+
+        assertEquals(2, classUnderTest.getStalls());
+        assertEquals(1, metrics.snapshot().getFxThreadStalls());
+    }
+
+    @Test
+    void that_operation_skips_platform_frames() {
+        StackTraceElement[] stack = {new StackTraceElement("javafx.collections.FXCollections", "sort", null, 1),
+                new StackTraceElement("java.util.Collections", "sort", null, 2),
+                new StackTraceElement("net.raumzeitfalle.fx.filechooser.FileChooserModel", "sort", null, 3)};
+
+        assertEquals("net.raumzeitfalle.fx.filechooser.FileChooserModel.sort(Unknown Source)",
+                FxStall.operationOf(stack));
+        assertEquals("unknown", FxStall.operationOf(new StackTraceElement[0]));
+    }
+
+    @Test
+    void that_threshold_must_be_positive() {
+        assertThrows(IllegalArgumentException.class, () -> new FxStallDetector(0, Runnable::run, System::nanoTime));
+    }
+}
@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import net.raumzeitfalle.fx.filechooser.locations.Location;
+
+class LocationAvailabilityTest {
+
+    private static final long TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(15);
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    private long now = 0;
+
+    private final LocationAvailability classUnderTest = new LocationAvailability(
+            new FileSystemProbe(Runnable::run, timer, () -> now, TimeUnit.SECONDS.toNanos(2),
+                    TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(30)),
+            () -> now, TIME_TO_LIVE);
+
+    @AfterEach
+    void cleanup() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void that_location_is_checked_once_while_result_is_recent() throws Exception {
+        CountingLocation location = new CountingLocation(Paths.get("TestData/SomeFiles"), true);
+
+        CompletableFuture<Boolean> first = classUnderTest.check(location);
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+
+        now += TIME_TO_LIVE - 1;
+        assertSame(first, classUnderTest.check(location));
+        assertEquals(1, location.checks.get());
+
+        now += 1;
+        assertTrue(classUnderTest.check(location).get(5, TimeUnit.SECONDS));
+        assertEquals(2, location.checks.get());
+    }
+
+    @Test
+    void that_invalidated_location_is_checked_again() throws Exception {
+        CountingLocation location = new CountingLocation(Paths.get("TestData/NotExisting"), false);
+
+        assertFalse(classUnderTest.check(location).get(5, TimeUnit.SECONDS));
+        classUnderTest.invalidate(location);
+        assertFalse(classUnderTest.check(location).get(5, TimeUnit.SECONDS));
+
+        assertEquals(2, location.checks.get());
+    }
+
+    private static class CountingLocation extends Location {
+
+        private final Path path;
+
+        private final boolean exists;
+
+        private final AtomicInteger checks = new AtomicInteger(0);
+
+        CountingLocation(Path path, boolean exists) {
+            this.path = path;
+            this.exists = exists;
+        }
+
+        @Override
+        public String getName() {
+            return path.toString();
+        }
+
+        @Override
+        public boolean exists() {
+            checks.incrementAndGet();
+            return exists;
+        }
+
+        @Override
+        public Path getPath() {
+            return path;
+        }
+    }
+}
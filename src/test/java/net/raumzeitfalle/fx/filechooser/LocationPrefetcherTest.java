@@ -0,0 +1,185 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.raumzeitfalle.fx.filechooser.locations.Location;
+import net.raumzeitfalle.fx.filechooser.locations.LocationHistory;
+import net.raumzeitfalle.fx.filechooser.locations.Locations;
+
+class LocationPrefetcherTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    private final FileSystemProbe probe = new FileSystemProbe(Runnable::run, timer, System::nanoTime,
+            TimeUnit.SECONDS.toNanos(2), TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(30));
+
+    private final DirectoryCache<List<IndexedPath>> listings = new DirectoryCache<>(10, 1024 * 1024,
+            FileListingCache::estimateSize);
+
+    @AfterEach
+    void cleanup() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void that_most_used_locations_are_ranked_first(@TempDir Path root) throws IOException {
+        Location first = Locations.at(Files.createDirectory(root.resolve("first")));
+        Location second = Locations.at(Files.createDirectory(root.resolve("second")));
+        Location third = Locations.at(Files.createDirectory(root.resolve("third")));
+
+        LocationPrefetcher classUnderTest = new LocationPrefetcher(PrefetchPolicy.mostUsed(2), listings, probe);
+        classUnderTest.recordUse(third);
+        classUnderTest.recordUse(third);
+        classUnderTest.recordUse(second);
+
+        assertEquals(Arrays.asList(third, second), classUnderTest.rank(Arrays.asList(first, second, third)));
+    }
+
+    @Test
+    void that_locations_are_ranked_by_history_frecency_first(@TempDir Path root) throws IOException {
+        Location first = Locations.at(Files.createDirectory(root.resolve("first")));
+        Location second = Locations.at(Files.createDirectory(root.resolve("second")));
+        Location third = Locations.at(Files.createDirectory(root.resolve("third")));
+        LocationHistory history = LocationHistory.inMemory(10);
+        history.record(third.getPath());
+        history.record(third.getPath());
+        history.record(first.getPath());
+
+        LocationPrefetcher classUnderTest = new LocationPrefetcher(PrefetchPolicy.mostUsed(3), listings, probe);
+        classUnderTest.recordUse(second);
+        classUnderTest.rankBy(history);
+
+        assertEquals(Arrays.asList(third, first, second), classUnderTest.rank(Arrays.asList(first, second, third)));
+    }
+
+    @Test
+    void that_regular_files_of_locations_are_cached(@TempDir Path root) throws IOException {
+        Path directory = Files.createDirectory(root.resolve("bookmark"));
+        Files.createDirectory(directory.resolve("subdirectory"));
+        Files.createFile(directory.resolve("file.txt"));
+        Location location = Locations.at(directory);
+
+        LocationPrefetcher classUnderTest = new LocationPrefetcher(PrefetchPolicy.mostUsed(1), listings, probe);
+
+        assertEquals(1, classUnderTest.prefetchNow(Arrays.asList(location)));
+        List<IndexedPath> cached = listings.get(FileListingCache.keyOf(directory)).get();
+        assertEquals(1, cached.size());
+        assertEquals("file.txt", cached.get(0).toString());
+
+        assertEquals(0, classUnderTest.prefetchNow(Arrays.asList(location)), "cached location is not read again");
+    }
+
+    @Test
+    void that_locations_exceeding_the_budget_are_not_cached(@TempDir Path root) throws IOException {
+        Path small = Files.createDirectory(root.resolve("small"));
+        Files.createFile(small.resolve("file.txt"));
+        Path large = Files.createDirectory(root.resolve("large"));
+        for (int i = 0; i < 5; i++) {
+            Files.createFile(large.resolve("file" + i + ".txt"));
+        }
+
+        PrefetchPolicy policy = PrefetchPolicy.mostUsed(2).withMaxEntriesPerLocation(3);
+        LocationPrefetcher classUnderTest = new LocationPrefetcher(policy, listings, probe);
+
+        assertEquals(1, classUnderTest.prefetchNow(Arrays.asList(Locations.at(large), Locations.at(small))));
+        assertFalse(listings.get(FileListingCache.keyOf(large)).isPresent());
+        assertTrue(listings.get(FileListingCache.keyOf(small)).isPresent());
+    }
+
+    @Test
+    void that_cache_lookups_of_prefetching_are_not_counted(@TempDir Path root) throws IOException {
+        Location location = Locations.at(Files.createDirectory(root.resolve("bookmark")));
+
+        LocationPrefetcher classUnderTest = new LocationPrefetcher(PrefetchPolicy.mostUsed(1), listings, probe);
+        classUnderTest.prefetchNow(Arrays.asList(location));
+        classUnderTest.prefetchNow(Arrays.asList(location));
+
+        assertEquals(1, listings.size());
+        assertEquals(0, listings.getHits());
+        assertEquals(0, listings.getMisses());
+    }
+
+    @Test
+    void that_locations_on_unreachable_shares_are_skipped(@TempDir Path root) throws Exception {
+        Location location = Locations.at(Files.createDirectory(root.resolve("bookmark")));
+        FileSystemProbe dead = new FileSystemProbe(r -> new Thread(r).start(), timer, System::nanoTime,
+                TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(30));
+        CountDownLatch hanging = new CountDownLatch(1);
+        try {
+            assertFalse(dead.evaluate(location.getPath(), () -> awaitQuietly(hanging)).get(5, TimeUnit.SECONDS));
+            assertTrue(dead.isKnownUnreachable(location.getPath()));
+
+            LocationPrefetcher classUnderTest = new LocationPrefetcher(PrefetchPolicy.mostUsed(1), listings, dead);
+
+            assertEquals(0, classUnderTest.prefetchNow(Arrays.asList(location)));
+            assertEquals(0, listings.size());
+        } finally {
+            hanging.countDown();
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Test
+    void that_locations_exceeding_the_read_time_are_not_cached(@TempDir Path root) throws IOException {
+        Path directory = Files.createDirectory(root.resolve("slow"));
+        for (int i = 0; i < 5; i++) {
+            Files.createFile(directory.resolve("file" + i + ".txt"));
+        }
+
+        PrefetchPolicy policy = PrefetchPolicy.mostUsed(1).withMaxReadTime(0, TimeUnit.MILLISECONDS);
+        LocationPrefetcher classUnderTest = new LocationPrefetcher(policy, listings, probe);
+
+        assertEquals(0, classUnderTest.prefetchNow(Arrays.asList(Locations.at(directory))));
+        assertEquals(0, listings.size());
+    }
+
+    @Test
+    void that_disabled_policy_does_not_prefetch() {
+        assertFalse(PrefetchPolicy.disabled().isEnabled());
+        assertTrue(PrefetchPolicy.mostUsed(1).isEnabled());
+        assertFalse(PrefetchPolicy.mostUsed(1).withMaxEntriesPerRun(0).isEnabled());
+    }
+}
@@ -20,29 +20,274 @@
 package net.raumzeitfalle.fx.filechooser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
 class RefreshBufferTest {
 
+    private final ObservableList<IndexedPath> target = FXCollections.observableArrayList();
+
+    private final Queue<Runnable> fxThread = new ConcurrentLinkedQueue<>();
+
+    private final PublicationStatistics statistics = new PublicationStatistics();
+
+    private volatile long now = 0;
+
+    private volatile boolean cancelled = false;
+
+    private RefreshBuffer classUnderTest = createBuffer(RefreshBuffer.DEFAULT_CAPACITY);
+
+    @Test
+    void that_first_item_is_published_immediately() {
+        classUnderTest.update(item(0));
+
+        assertEquals(1, fxThread.size(), "scheduled publications");
+        runFxThread();
+        assertEquals(1, target.size());
+    }
+
+    @Test
+    void that_items_are_collected_until_interval_has_elapsed() {
+        classUnderTest.update(item(0));
+        runFxThread();
+
+        now += RefreshBuffer.PUBLICATION_INTERVAL_NANOS / 2;
+        for (int i = 1; i <= 100; i++) {
+            classUnderTest.update(item(i));
+        }
+        assertEquals(0, fxThread.size(), "scheduled publications");
+
+        now += RefreshBuffer.PUBLICATION_INTERVAL_NANOS;
+        classUnderTest.update(item(101));
+        assertEquals(1, fxThread.size(), "scheduled publications");
+
+        runFxThread();
+        assertEquals(102, target.size());
+    }
+
+    @Test
+    void that_batches_grow_while_fx_thread_is_behind() {
+        classUnderTest.update(item(0));
+        assertEquals(1, statistics.getQueuedItems());
+
+        for (int i = 1; i <= RefreshBuffer.MAX_BATCH_SIZE; i++) {
+            now += RefreshBuffer.PUBLICATION_INTERVAL_NANOS;
+            classUnderTest.update(item(i));
+        }
+        assertEquals(1, fxThread.size(), "scheduled publications");
+
+        runFxThread();
+        assertEquals(0, statistics.getQueuedItems());
+
+        now += RefreshBuffer.PUBLICATION_INTERVAL_NANOS;
+        classUnderTest.update(item(RefreshBuffer.MAX_BATCH_SIZE + 1));
+        assertEquals(1, fxThread.size(), "scheduled publications");
+
+        runFxThread();
+        assertEquals(RefreshBuffer.MAX_BATCH_SIZE + 2, target.size());
+        assertEquals(2, statistics.getPublications());
+    }
+
+    @Test
+    void that_full_batch_is_published_before_interval_has_elapsed() {
+        classUnderTest.update(item(0));
+        runFxThread();
+
+        for (int i = 1; i <= RefreshBuffer.MAX_BATCH_SIZE; i++) {
+            classUnderTest.update(item(i));
+        }
+
+        assertEquals(1, fxThread.size(), "scheduled publications");
+        runFxThread();
+        assertEquals(RefreshBuffer.MAX_BATCH_SIZE + 1, target.size());
+    }
+
+    @Test
+    void that_flush_publishes_remaining_items() {
+        classUnderTest.update(item(0));
+        classUnderTest.update(item(1));
+        classUnderTest.update(item(2));
+
+        classUnderTest.flush();
+        classUnderTest.flush();
+
+        assertEquals(1, fxThread.size(), "scheduled publications");
+        runFxThread();
+        assertEquals(3, target.size());
+        assertEquals(2, statistics.getPublications());
+        assertEquals(0, statistics.getQueuedItems());
+    }
+
+    @Test
+    void that_flush_does_not_schedule_empty_publications() {
+        classUnderTest.flush();
+
+        assertEquals(0, fxThread.size(), "scheduled publications");
+    }
+
+    @Test
+    void that_nothing_is_published_after_cancellation_until_flushed() {
+        cancelled = true;
+        classUnderTest.update(item(0));
+        assertEquals(0, fxThread.size(), "scheduled publications");
+
+        classUnderTest.flush();
+        runFxThread();
+        assertEquals(1, target.size());
+    }
+
+    @Test
+    void that_publication_latency_is_measured() {
+        now = 1_000;
+        classUnderTest.update(item(0));
+        now = 3_000;
+        classUnderTest.update(item(1));
+        now = 6_000;
+        runFxThread();
+
+        assertEquals(5_000, statistics.getLastLatencyNanos());
+        assertEquals(0, statistics.getQueuedItems());
+
+        classUnderTest.flush();
+        assertEquals(1, statistics.getQueuedItems());
+        now = 11_000;
+        runFxThread();
+
+        assertEquals(8_000, statistics.getLastLatencyNanos());
+        assertEquals(8_000, statistics.getMaxLatencyNanos());
+        assertEquals(6_500, statistics.getAverageLatencyNanos());
+        assertEquals(2, statistics.getPublishedItems());
+    }
+
+    @Test
+    void that_scanner_waits_while_both_buffers_are_in_use() throws Exception {
+        classUnderTest = createBuffer(16);
+        classUnderTest.update(item(0));
+
+        AtomicBoolean offered = new AtomicBoolean(false);
+        Thread scanner = new Thread(() -> {
+            for (int i = 1; i <= 17; i++) {
+                classUnderTest.update(item(i));
+            }
+            offered.set(true);
+        });
+        scanner.start();
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(offered.get(), "scanner is blocked by back-pressure");
+
+        runFxThread();
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilTrue(offered);
+        scanner.join();
+        classUnderTest.flush();
+        runFxThread();
+        assertEquals(18, target.size());
+    }
+
+    @Test
+    void that_cancellation_releases_waiting_scanner() throws Exception {
+        classUnderTest = createBuffer(16);
+        classUnderTest.update(item(0));
+
+        AtomicBoolean offered = new AtomicBoolean(false);
+        Thread scanner = new Thread(() -> {
+            for (int i = 1; i <= 17; i++) {
+                classUnderTest.update(item(i));
+            }
+            offered.set(true);
+        });
+        scanner.start();
+
+        cancelled = true;
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).untilTrue(offered);
+        scanner.join();
+        classUnderTest.flush();
+        runFxThread();
+        assertEquals(17, target.size(), "item exceeding both buffers is discarded");
+        assertEquals(1, statistics.getDiscardedItems());
+    }
+
+    @Test
+    void that_every_item_is_published_or_discarded_once() throws Exception {
+        ExecutorService consumer = Executors.newSingleThreadExecutor();
+        try {
+            // many short scans, so that flush() often overlaps with a running publication
+            for (int round = 0; round < 5_000; round++) {
+                ObservableList<IndexedPath> published = FXCollections.observableArrayList();
+                AtomicInteger changes = new AtomicInteger(0);
+                published.addListener((ListChangeListener<IndexedPath>) c -> changes.incrementAndGet());
+                PublicationStatistics roundStatistics = new PublicationStatistics();
+                AtomicBoolean cancelRound = new AtomicBoolean(false);
+                RefreshBuffer buffer = new RefreshBuffer(cancelRound::get, published, roundStatistics,
+                        System::nanoTime, consumer, 16);
+
+                int produced = 16 + round % 64;
+                int cancelAt = (round % 2 == 0) ? produced : round % produced;
+                for (int i = 0; i < produced; i++) {
+                    if (i == cancelAt) {
+                        cancelRound.set(true);
+                    }
+                    buffer.update(item(i));
+                }
+                buffer.flush();
+
+                // publications after flush() are either queued already or run by the consumer itself
+                consumer.submit(() -> null).get(10, TimeUnit.SECONDS);
+
+                assertEquals(produced, roundStatistics.getPublishedItems() + roundStatistics.getDiscardedItems(),
+                        "published and discarded items");
+                assertEquals(0, roundStatistics.getQueuedItems());
+                assertEquals(roundStatistics.getPublishedItems(), published.size());
+                assertEquals(changes.get(), roundStatistics.getPublications(), "no empty publications");
+            }
+        } finally {
+            consumer.shutdownNow();
+        }
+    }
+
     @ParameterizedTest
     @CsvSource({
-        "1,        10",
-        "5,        10",
-        "100,      10",
-        "1001,     20",
-        "5000,     20",
-        "5001,     50",
-        "15000,    50",
-        "15001,   100",
-        "50000,   100",
-        "50001,   200",
-        "100000,  200",
-        "100001,  500",
-        "600001, 1000",})
-    void cacheSize(Integer items, Integer expectedBufferSize) {
-        int bufferSize = RefreshBuffer.determineBufferSize(items);
-        assertEquals(bufferSize, expectedBufferSize);
+        "0,          16",
+        "11,         16",
+        "1001,     1001",
+        "50000,   50000",
+        "600001,  50000",})
+    void capacity(Integer items, Integer expectedCapacity) {
+        assertEquals(expectedCapacity, RefreshBuffer.determineCapacity(items));
+    }
+
+    private RefreshBuffer createBuffer(int capacity) {
+        return new RefreshBuffer(() -> cancelled, target, statistics, () -> now, fxThread::add, capacity);
+    }
+
+    private void runFxThread() {
+        while (!fxThread.isEmpty()) {
+            fxThread.remove().run();
+        }
+    }
+
+    private static IndexedPath item(int i) {
+        return new IndexedPath(Paths.get("file" + i + ".txt"), FileTime.from(i, TimeUnit.SECONDS));
     }
 }
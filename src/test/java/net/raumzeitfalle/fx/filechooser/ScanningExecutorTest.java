@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2021 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class ScanningExecutorTest {
+
+    private final ScanningExecutor classUnderTest = new ScanningExecutor("test-scan", 2);
+
+    @Test
+    void that_queue_depth_and_active_workers_are_reported() throws Exception {
+        assumeFalse(ScanningThreads.areVirtual(), "platform threads only");
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        for (int i = 0; i < 5; i++) {
+            classUnderTest.execute(blocking);
+        }
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> classUnderTest.getActiveWorkers() == 2);
+        assertEquals(3, classUnderTest.getQueueDepth());
+        assertEquals(2, classUnderTest.getMaximumWorkers());
+
+        release.countDown();
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> classUnderTest.getCompletedTasks() == 5);
+        assertEquals(0, classUnderTest.getQueueDepth());
+        assertEquals(0, classUnderTest.getActiveWorkers());
+    }
+
+    @Test
+    void that_workers_are_daemon_threads() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] daemon = new boolean[1];
+        classUnderTest.execute(() -> {
+            daemon[0] = Thread.currentThread().isDaemon();
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(daemon[0], "worker thread is daemon");
+    }
+
+    @Test
+    void that_shared_executor_is_bounded() {
+        assumeFalse(ScanningThreads.areVirtual(), "platform threads only");
+        int workers = ScanningExecutor.shared().getMaximumWorkers();
+        assertTrue(workers >= 2 && workers <= 4, "number of workers between 2 and 4 but was " + workers);
+    }
+
+    @Test
+    void that_directory_trees_do_not_share_workers_with_file_scans() {
+        assertNotSame(ScanningExecutor.shared(), ScanningExecutor.directoryTrees());
+        assertEquals(ScanningThreads.maximumWorkers(2), ScanningExecutor.directoryTrees().getMaximumWorkers());
+    }
+
+    @Test
+    void that_virtual_threads_are_bounded() throws Exception {
+        assumeTrue(ScanningThreads.areVirtual(), "virtual threads only");
+        int bound = classUnderTest.getMaximumWorkers();
+        assertEquals(ScanningThreads.maximumWorkers(2), bound);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        for (int i = 0; i < bound + 3; i++) {
+            classUnderTest.execute(blocking);
+        }
+
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until(() -> classUnderTest.getActiveWorkers() == bound);
+        assertEquals(3, classUnderTest.getQueueDepth());
+
+        release.countDown();
+
+        Awaitility.await()
+                  .atMost(Duration.ofSeconds(10))
+                  .until(() -> classUnderTest.getCompletedTasks() == bound + 3);
+    }
+
+    /*
+     * Only set by the test run of the java21 profile, which tests against the
+     * multi-release JAR instead of the Java 8 classes.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "fxfilechooser.test.virtualThreads", matches = "true")
+    void that_java21_layer_runs_tasks_on_virtual_threads() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] virtual = new boolean[1];
+        classUnderTest.execute(() -> {
+            try {
+                virtual[0] = (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+            } catch (ReflectiveOperationException e) {
+                virtual[0] = false;
+            }
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(ScanningThreads.areVirtual(), "Java 21 variant of ScanningThreads is loaded");
+        assertTrue(virtual[0], "worker thread is virtual");
+    }
+}
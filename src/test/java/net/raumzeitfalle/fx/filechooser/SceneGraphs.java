@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ComboBoxBase;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TextInputControl;
+import javafx.scene.control.TreeView;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.SVGPath;
+
+/**
+ * Describes a scene graph as text, so that a view created in code can be
+ * compared with the view loaded from FXML.
+ */
+public final class SceneGraphs {
+
+    private SceneGraphs() {
+        /* not intended for instantiation */
+    }
+
+    public static String describe(Node node) {
+        StringBuilder description = new StringBuilder();
+        describe(node, "", description);
+        return description.toString();
+    }
+
+    private static void describe(Node node, String indent, StringBuilder out) {
+        out.append(indent).append(node.getClass().getName());
+        append(out, "id", node.getId());
+        append(out, "styleClass", node.getStyleClass());
+        append(out, "style", node.getStyle());
+        append(out, "focusTraversable", node.isFocusTraversable());
+        append(out, "constraints", new TreeMap<>(stringKeys(node.getProperties())));
+        if (node instanceof Region) {
+            Region region = (Region) node;
+            append(out, "min", region.getMinWidth() + "x" + region.getMinHeight());
+            append(out, "pref", region.getPrefWidth() + "x" + region.getPrefHeight());
+            append(out, "max", region.getMaxWidth() + "x" + region.getMaxHeight());
+            append(out, "padding", region.getPadding());
+        }
+        if (node instanceof HBox)
+            append(out, "alignment", ((HBox) node).getAlignment());
+        if (node instanceof VBox)
+            append(out, "alignment", ((VBox) node).getAlignment());
+        if (node instanceof FlowPane)
+            append(out, "alignment", ((FlowPane) node).getAlignment());
+        if (node instanceof Labeled) {
+            Labeled labeled = (Labeled) node;
+            append(out, "text", labeled.getText());
+            append(out, "mnemonicParsing", labeled.isMnemonicParsing());
+            append(out, "alignment", labeled.getAlignment());
+            append(out, "contentDisplay", labeled.getContentDisplay());
+        }
+        if (node instanceof TextInputControl) {
+            TextInputControl input = (TextInputControl) node;
+            append(out, "text", input.getText());
+            append(out, "promptText", input.getPromptText());
+            append(out, "editable", input.isEditable());
+        }
+        if (node instanceof ProgressIndicator)
+            append(out, "progress", ((ProgressIndicator) node).getProgress());
+        if (node instanceof ListView)
+            append(out, "editable", ((ListView<?>) node).isEditable());
+        if (node instanceof TreeView)
+            append(out, "editable", ((TreeView<?>) node).isEditable());
+        if (node instanceof ComboBoxBase)
+            append(out, "editable", ((ComboBoxBase<?>) node).isEditable());
+        if (node instanceof Shape) {
+            append(out, "fill", ((Shape) node).getFill());
+            append(out, "stroke", ((Shape) node).getStroke());
+        }
+        if (node instanceof SVGPath)
+            append(out, "content", ((SVGPath) node).getContent());
+        out.append('\n');
+
+        String nested = indent + "  ";
+        if (node instanceof Labeled && null != ((Labeled) node).getGraphic())
+            describe(((Labeled) node).getGraphic(), nested + "graphic: ", out);
+        if (node instanceof MenuButton) {
+            for (MenuItem item : ((MenuButton) node).getItems()) {
+                describe(item, nested, out);
+            }
+        }
+        for (Node child : children(node)) {
+            describe(child, nested, out);
+        }
+    }
+
+    private static void describe(MenuItem item, String indent, StringBuilder out) {
+        out.append(indent).append(item.getClass().getName());
+        append(out, "id", item.getId());
+        append(out, "text", item.getText());
+        append(out, "mnemonicParsing", item.isMnemonicParsing());
+        out.append('\n');
+        if (null != item.getGraphic())
+            describe(item.getGraphic(), indent + "  graphic: ", out);
+    }
+
+    /*
+     * Children of controls are created by their skins, only the children of
+     * layout panes belong to the view itself.
+     */
+    private static List<Node> children(Node node) {
+        if (node instanceof javafx.scene.layout.Pane)
+            return ((Parent) node).getChildrenUnmodifiable();
+        return Collections.emptyList();
+    }
+
+    private static Map<String, Object> stringKeys(Map<Object, Object> properties) {
+        Map<String, Object> constraints = new TreeMap<>();
+        properties.forEach((key, value) -> constraints.put(String.valueOf(key), value));
+        return constraints;
+    }
+
+    private static void append(StringBuilder out, String name, Object value) {
+        out.append(' ').append(name).append('=').append(value);
+    }
+}
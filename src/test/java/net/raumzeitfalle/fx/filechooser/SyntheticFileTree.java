@@ -0,0 +1,416 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reproducible tree of files for tests, benchmarks and profiling. The tree is
+ * planned completely from a seed, so the same settings always produce the same
+ * names, directories and timestamps, independent of the order in which the
+ * files are then created in parallel.
+ * 
+ * <pre>
+ * SyntheticFileTree tree = SyntheticFileTree.withSeed(42)
+ *                                           .files(10_000)
+ *                                           .depth(2)
+ *                                           .fanOut(4)
+ *                                           .build();
+ * tree.createIn(temporaryDirectory);
+ * </pre>
+ * 
+ * Files are distributed randomly over the root and all of its sub directories.
+ * Run {@link #main(String[])} to create a tree for manual or profiling use.
+ */
+public final class SyntheticFileTree {
+
+    private static final String[] SYLLABLES = { "metro", "device", "layer", "customer", "special", "auto", "line",
+            "Space", "clear", "dark", "yellow", "green", "orange", "duv", "iline", "ltem", "bim", "report",
+            "statistics", "documentation", "architecture", "diagrams", "shares", "earning", "returns", "complaints",
+            "worksheet", "workbook", "table", "workdocument", "calculation", "summary", "index", "letter",
+            "templates", "toc", "overview", "projects", "BuildFile", "make", "draft", "final", "collection",
+            "archive", "gallery", "mappings" };
+
+    private static final String[] SEPARATORS = { ".", "-", "_", "" };
+
+    /**
+     * Creates a tree as described by the arguments.
+     * 
+     * @param args target directory, number of files (default 100000) and seed
+     *             (default 42)
+     * @throws IOException if the tree cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: SyntheticFileTree <target directory> [files] [seed]");
+            return;
+        }
+        Path target = Paths.get(args[0]);
+        int files = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        long start = System.nanoTime();
+        SyntheticFileTree tree = withSeed(seed).files(files).build();
+        tree.createIn(target);
+        System.out.printf("Created %d files in %s within %d ms%n", tree.getFiles().size(), target.toAbsolutePath(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * @param seed Seed of the random generator, the same seed and settings
+     *             always produce the same tree.
+     * @return {@link Builder} with defaults: 1000 files, no sub directories,
+     *         names of 1 to 5 syllables, a mix of common extensions and
+     *         timestamps spread over one year before 2022-01-01.
+     */
+    public static Builder withSeed(long seed) {
+        return new Builder(seed);
+    }
+
+    public static final class Builder {
+
+        private final long seed;
+
+        private int files = 1000;
+
+        private int depth = 0;
+
+        private int fanOut = 0;
+
+        private int minSyllables = 1;
+
+        private int maxSyllables = 5;
+
+        private final Map<String, Integer> extensions = new LinkedHashMap<>();
+
+        private Instant newest = Instant.parse("2022-01-01T00:00:00Z");
+
+        private Duration spread = Duration.ofDays(365);
+
+        private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        private Builder(long seed) {
+            this.seed = seed;
+        }
+
+        public Builder files(int files) {
+            this.files = requireNotNegative(files, "files");
+            return this;
+        }
+
+        /**
+         * @param depth Number of directory levels below the root, 0 puts all files
+         *              into the root.
+         * @return this {@link Builder}
+         */
+        public Builder depth(int depth) {
+            this.depth = requireNotNegative(depth, "depth");
+            return this;
+        }
+
+        /**
+         * @param fanOut Number of sub directories per directory.
+         * @return this {@link Builder}
+         */
+        public Builder fanOut(int fanOut) {
+            this.fanOut = requireNotNegative(fanOut, "fanOut");
+            return this;
+        }
+
+        /**
+         * File names are made of syllables such as &quot;report&quot; or
+         * &quot;summary&quot;, the number of syllables per name is uniformly
+         * distributed within the given range.
+         * 
+         * @param min Minimum number of syllables per file name
+         * @param max Maximum number of syllables per file name
+         * @return this {@link Builder}
+         */
+        public Builder syllables(int min, int max) {
+            if (min < 1 || max < min)
+                throw new IllegalArgumentException("syllables must satisfy 1 <= min <= max");
+            this.minSyllables = min;
+            this.maxSyllables = max;
+            return this;
+        }
+
+        /**
+         * Adds an extension to the mix, replacing the default mix with the first
+         * call.
+         * 
+         * @param extension Extension without dot, e.g. &quot;txt&quot;
+         * @param weight    Relative frequency of the extension
+         * @return this {@link Builder}
+         */
+        public Builder extension(String extension, int weight) {
+            Objects.requireNonNull(extension, "extension must not be null");
+            if (weight < 1)
+                throw new IllegalArgumentException("weight must be positive");
+            this.extensions.put(extension, weight);
+            return this;
+        }
+
+        /**
+         * @param newest Last modified time of the most recent file
+         * @param spread Last modified times are uniformly distributed between
+         *               newest - spread and newest
+         * @return this {@link Builder}
+         */
+        public Builder timestamps(Instant newest, Duration spread) {
+            this.newest = Objects.requireNonNull(newest, "newest must not be null");
+            this.spread = Objects.requireNonNull(spread, "spread must not be null");
+            return this;
+        }
+
+        /**
+         * @param parallelism Number of threads creating files, defaults to the
+         *                    number of processors.
+         * @return this {@link Builder}
+         */
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1)
+                throw new IllegalArgumentException("parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public SyntheticFileTree build() {
+            return new SyntheticFileTree(this);
+        }
+
+        private Map<String, Integer> extensionMix() {
+            if (!extensions.isEmpty())
+                return extensions;
+            Map<String, Integer> defaults = new LinkedHashMap<>();
+            defaults.put("txt", 20);
+            defaults.put("pdf", 15);
+            defaults.put("xlsx", 10);
+            defaults.put("docx", 10);
+            defaults.put("csv", 10);
+            defaults.put("xml", 8);
+            defaults.put("jpg", 8);
+            defaults.put("html", 5);
+            defaults.put("java", 5);
+            defaults.put("md", 4);
+            defaults.put("log", 4);
+            defaults.put("", 1);
+            return defaults;
+        }
+
+        private static int requireNotNegative(int value, String name) {
+            if (value < 0)
+                throw new IllegalArgumentException(name + " must not be negative");
+            return value;
+        }
+    }
+
+    /**
+     * A planned file, relative to the root of the tree.
+     */
+    public static final class Entry {
+
+        private final Path path;
+
+        private final FileTime lastModified;
+
+        private Entry(Path path, FileTime lastModified) {
+            this.path = path;
+            this.lastModified = lastModified;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public FileTime getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final List<Path> directories;
+
+    private final List<Entry> files;
+
+    private final int parallelism;
+
+    private SyntheticFileTree(Builder builder) {
+        Random random = new Random(builder.seed);
+        this.parallelism = builder.parallelism;
+        this.directories = Collections.unmodifiableList(planDirectories(builder, random));
+        this.files = Collections.unmodifiableList(planFiles(builder, random));
+    }
+
+    /**
+     * @return all planned sub directories relative to the root, parents before
+     *         their children
+     */
+    public List<Path> getDirectories() {
+        return directories;
+    }
+
+    /**
+     * @return all planned files relative to the root
+     */
+    public List<Entry> getFiles() {
+        return files;
+    }
+
+    /**
+     * Creates all directories and files of this tree in the given root
+     * directory. Existing files are overwritten.
+     * 
+     * @param root {@link Path} of the root directory, created if needed
+     * @throws IOException if a directory or file cannot be created
+     */
+    public void createIn(Path root) throws IOException {
+        Files.createDirectories(root);
+        for (Path directory : directories) {
+            Files.createDirectories(root.resolve(directory));
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> files.parallelStream().forEach(entry -> write(root, entry))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating files in " + root, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IOException("Could not create files in " + root, e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void write(Path root, Entry entry) {
+        Path file = root.resolve(entry.getPath());
+        try {
+            Files.write(file, entry.getPath().getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(file, entry.getLastModified());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> planDirectories(Builder builder, Random random) {
+        List<Path> planned = new ArrayList<>();
+        List<Path> level = Collections.singletonList(Paths.get(""));
+        for (int d = 0; d < builder.depth && builder.fanOut > 0; d++) {
+            List<Path> next = new ArrayList<>();
+            for (Path parent : level) {
+                Set<String> names = new HashSet<>();
+                for (int i = 0; i < builder.fanOut; i++) {
+                    String name = unique(names, createName(random, 1, 2));
+                    next.add(parent.resolve(name));
+                }
+            }
+            planned.addAll(next);
+            level = next;
+        }
+        return planned;
+    }
+
+    private List<Entry> planFiles(Builder builder, Random random) {
+        List<Path> folders = new ArrayList<>(directories.size() + 1);
+        folders.add(Paths.get(""));
+        folders.addAll(directories);
+        List<Set<String>> namesPerFolder = new ArrayList<>(folders.size());
+        for (int i = 0; i < folders.size(); i++) {
+            namesPerFolder.add(new HashSet<>());
+        }
+
+        Map<String, Integer> mix = builder.extensionMix();
+        String[] extensions = mix.keySet().toArray(new String[0]);
+        int[] cumulativeWeights = new int[extensions.length];
+        int totalWeight = 0;
+        for (int i = 0; i < extensions.length; i++) {
+            totalWeight += mix.get(extensions[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long newestMillis = builder.newest.toEpochMilli();
+        long spreadMillis = Math.max(1, builder.spread.toMillis());
+        List<Entry> planned = new ArrayList<>(builder.files);
+        for (int f = 0; f < builder.files; f++) {
+            int folder = random.nextInt(folders.size());
+            String extension = pick(extensions, cumulativeWeights, random.nextInt(totalWeight));
+            String base = createName(random, builder.minSyllables, builder.maxSyllables);
+            String name = unique(namesPerFolder.get(folder), extension.isEmpty() ? base : base + "." + extension);
+            long lastModified = newestMillis - (long) (random.nextDouble() * spreadMillis);
+            planned.add(new Entry(folders.get(folder).resolve(name), FileTime.fromMillis(lastModified)));
+        }
+        return planned;
+    }
+
+    private static String pick(String[] extensions, int[] cumulativeWeights, int value) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i])
+                return extensions[i];
+        }
+        return extensions[extensions.length - 1];
+    }
+
+    private static String createName(Random random, int minSyllables, int maxSyllables) {
+        int syllables = minSyllables + random.nextInt(maxSyllables - minSyllables + 1);
+        String separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+        StringBuilder name = new StringBuilder();
+        for (int s = 0; s < syllables; s++) {
+            if (s > 0)
+                name.append(separator);
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    /*
+     * Duplicate names are numbered, names are checked case insensitive so that
+     * trees are identical on case insensitive file systems.
+     */
+    private static String unique(Set<String> names, String candidate) {
+        String name = candidate;
+        int suffix = 1;
+        while (!names.add(name.toLowerCase(Locale.ROOT))) {
+            int dot = candidate.lastIndexOf('.');
+            name = dot > 0 ? candidate.substring(0, dot) + "(" + suffix + ")" + candidate.substring(dot)
+                    : candidate + "(" + suffix + ")";
+            suffix++;
+        }
+        return name;
+    }
+}
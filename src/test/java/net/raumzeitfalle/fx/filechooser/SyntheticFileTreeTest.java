@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyntheticFileTreeTest {
+
+    @Test
+    void that_same_seed_plans_same_tree() {
+        SyntheticFileTree first = SyntheticFileTree.withSeed(7).files(500).depth(2).fanOut(3).build();
+        SyntheticFileTree second = SyntheticFileTree.withSeed(7).files(500).depth(2).fanOut(3).build();
+        SyntheticFileTree other = SyntheticFileTree.withSeed(8).files(500).depth(2).fanOut(3).build();
+
+        assertEquals(first.getDirectories(), second.getDirectories());
+        assertEquals(describe(first), describe(second));
+        assertNotEquals(describe(first), describe(other));
+    }
+
+    @Test
+    void that_directories_follow_depth_and_fan_out() {
+        SyntheticFileTree tree = SyntheticFileTree.withSeed(1).files(10).depth(2).fanOut(3).build();
+
+        assertEquals(3 + 9, tree.getDirectories().size());
+        assertTrue(tree.getDirectories().stream().allMatch(d -> d.getNameCount() <= 2));
+    }
+
+    @Test
+    void that_settings_shape_the_planned_files() {
+        Instant newest = Instant.parse("2020-06-01T00:00:00Z");
+        SyntheticFileTree tree = SyntheticFileTree.withSeed(3)
+                                                  .files(2000)
+                                                  .syllables(2, 2)
+                                                  .extension("csv", 1)
+                                                  .timestamps(newest, Duration.ofDays(10))
+                                                  .build();
+
+        assertEquals(2000, tree.getFiles().size());
+        for (SyntheticFileTree.Entry entry : tree.getFiles()) {
+            assertTrue(entry.getPath().toString().endsWith(".csv"), entry.getPath().toString());
+            Instant lastModified = entry.getLastModified().toInstant();
+            assertTrue(!lastModified.isAfter(newest) && lastModified.isAfter(newest.minus(Duration.ofDays(10))));
+        }
+    }
+
+    @Test
+    void that_tree_is_created_on_disk(@TempDir Path root) throws IOException {
+        SyntheticFileTree tree = SyntheticFileTree.withSeed(11).files(300).depth(1).fanOut(4).parallelism(4).build();
+
+        tree.createIn(root);
+
+        try (Stream<Path> created = Files.walk(root)) {
+            assertEquals(300, created.filter(Files::isRegularFile).count());
+        }
+        SyntheticFileTree.Entry first = tree.getFiles().get(0);
+        assertEquals(first.getLastModified(), Files.getLastModifiedTime(root.resolve(first.getPath())));
+    }
+
+    private static List<String> describe(SyntheticFileTree tree) {
+        return tree.getFiles()
+                   .stream()
+                   .map(entry -> entry.getPath() + "@" + entry.getLastModified())
+                   .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import net.raumzeitfalle.fx.dirchooser.DirectoryChooserView;
+
+class ToolkitWarmUpTest extends FxTestTemplate {
+
+    @Test
+    void that_warm_up_creates_offscreen_views_once_per_skin() throws Exception {
+        CompletableFuture<Void> warmUp = SwingFileChooser.warmUp(Skin.MODENA);
+
+        warmUp.get(30, TimeUnit.SECONDS);
+
+        assertTrue(warmUp.isDone());
+        assertSame(warmUp, SwingFileChooser.warmUp(Skin.MODENA));
+    }
+
+    @Test
+    void that_stylesheets_and_icons_are_cached() throws Exception {
+        SwingFileChooser.warmUp(Skin.DARK).get(30, TimeUnit.SECONDS);
+
+        assertTrue(ToolkitWarmUp.stylesheetsOf(Skin.DARK)
+                                .contains(Skin.DARK.stylesheetOf(FileChooserView.class)));
+        assertTrue(ToolkitWarmUp.stylesheetsOf(Skin.DARK)
+                                .contains(Skin.DARK.stylesheetOf(DirectoryChooserView.class)));
+        for (FileIcons icon : FileIcons.values()) {
+            assertTrue(icon.isLoaded(), icon + " is loaded");
+        }
+    }
+
+    @Test
+    void that_skin_is_required() {
+        assertThrows(NullPointerException.class, () -> SwingFileChooser.warmUp(null));
+    }
+}
@@ -0,0 +1,201 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.Node;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+
+/**
+ * Opens the {@link FXFileChooserStage} in generated directories and measures
+ * what users perceive as speed. Fails when a measurement exceeds its threshold
+ * in {@code ui-performance-thresholds.properties}.
+ * <p>
+ * Runs headless with Monocle via {@code mvn test -P ui-performance}, it is
+ * excluded from the default build. Generated directories are kept in
+ * {@code target/ui-performance/trees}, or {@code -Dui.performance.trees=<path>},
+ * and reused by later runs.
+ */
+@Tag("ui-performance")
+class UiPerformanceTest extends FxTestTemplate {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private static final String KEYSTROKES = "report";
+
+    private static final int SCROLL_FRAMES = 120;
+
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final Path TREES = Paths.get(System.getProperty("ui.performance.trees",
+            Paths.get("target", "ui-performance", "trees").toString()));
+
+    private static UiPerformanceThresholds thresholds;
+
+    private FXFileChooserStage chooser;
+
+    @AfterEach
+    void closeChooser() {
+        if (null != chooser) {
+            interact(chooser::dispose);
+        }
+    }
+
+    @AfterAll
+    static void writeMeasurements() throws IOException {
+        if (null != thresholds) {
+            thresholds.writeMeasurements();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 10_000, 100_000 })
+    void file_chooser_stays_responsive(int entries) throws Exception {
+        if (null == thresholds) {
+            thresholds = new UiPerformanceThresholds();
+        }
+        Path directory = treeWith(entries);
+
+        AtomicReference<ListView<?>> list = new AtomicReference<>();
+        long start = System.nanoTime();
+        CompletableFuture<Long> firstRow = FrameProbe.firstFrame(
+                () -> null != list.get() && hasPaintedRow(list.get()));
+        CompletableFuture<Long> complete = FrameProbe.firstFrame(
+                () -> null != list.get() && list.get().getItems().size() == entries);
+        interact(() -> {
+            try {
+                chooser = FXFileChooserStage.create(Skin.DARK, directory);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            chooser.setWidth(700);
+            chooser.setHeight(500);
+            chooser.show();
+            list.set((ListView<?>) chooser.getScene().lookup("#listOfFiles"));
+        });
+
+        thresholds.record("time-to-first-row", entries,
+                millisSince(start, firstRow.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)));
+        thresholds.record("time-to-complete", entries,
+                millisSince(start, complete.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)));
+        thresholds.record("keystroke-to-repaint", entries, measureKeystrokes(list.get()));
+        thresholds.record("scroll-frame-time", entries, measureScrolling(list.get()));
+
+        thresholds.assertWithinThresholds();
+    }
+
+    private double measureKeystrokes(ListView<?> list) throws Exception {
+        TextField filter = (TextField) chooser.getScene().lookup("#fileNameFilter");
+        FilteredList<?> items = (FilteredList<?>) list.getItems();
+        clickOn(filter);
+        double[] latencies = new double[KEYSTROKES.length()];
+        for (int i = 0; i < KEYSTROKES.length(); i++) {
+            String expected = KEYSTROKES.substring(0, i + 1);
+            CompletableFuture<Long> repaint = FrameProbe.firstFrame(filtered(list, items, expected));
+            long keystroke = System.nanoTime();
+            write(KEYSTROKES.charAt(i));
+            latencies[i] = millisSince(keystroke, repaint.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        interact(() -> filter.setText(""));
+        Arrays.sort(latencies);
+        return latencies[latencies.length / 2];
+    }
+
+    /*
+     * Holds once the list has been laid out and painted with the predicate of
+     * the keystroke: the pulse after the one in which the new predicate was
+     * seen, when all painted rows match the typed text.
+     */
+    private static BooleanSupplier filtered(ListView<?> list, FilteredList<?> items, String expected) {
+        Object before = items.getPredicate();
+        AtomicBoolean applied = new AtomicBoolean(false);
+        return () -> {
+            if (items.getPredicate() == before)
+                return false;
+            if (!applied.getAndSet(true))
+                return false;
+            return items.isEmpty() || paintedRowsMatch(list, expected);
+        };
+    }
+
+    private static boolean paintedRowsMatch(ListView<?> list, String expected) {
+        boolean painted = false;
+        for (Node node : list.lookupAll(".list-cell")) {
+            if (node instanceof ListCell && null != ((ListCell<?>) node).getItem()) {
+                String name = ((ListCell<?>) node).getItem().toString().toLowerCase();
+                if (!name.contains(expected))
+                    return false;
+                painted = true;
+            }
+        }
+        return painted;
+    }
+
+    private double measureScrolling(ListView<?> list) throws Exception {
+        AtomicInteger index = new AtomicInteger(0);
+        int size = list.getItems().size();
+        long[] intervals = FrameProbe.frameIntervals(SCROLL_FRAMES, () -> list.scrollTo(index.addAndGet(25) % size))
+                                     .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Arrays.sort(intervals);
+        return intervals[(int) Math.ceil(intervals.length * 0.95) - 1] / (double) NANOS_PER_MILLI;
+    }
+
+    private static boolean hasPaintedRow(ListView<?> list) {
+        for (Node node : list.lookupAll(".list-cell")) {
+            if (node instanceof ListCell && null != ((ListCell<?>) node).getItem())
+                return true;
+        }
+        return false;
+    }
+
+    private static double millisSince(long start, long end) {
+        return (end - start) / (double) NANOS_PER_MILLI;
+    }
+
+    private static Path treeWith(int entries) throws IOException {
+        Path directory = TREES.resolve("entries-" + entries);
+        Path complete = TREES.resolve("entries-" + entries + ".complete");
+        if (!Files.isRegularFile(complete)) {
+            SyntheticFileTree.withSeed(entries).files(entries).build().createIn(directory);
+            Files.createFile(complete);
+        }
+        return directory;
+    }
+}
@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Thresholds of the UI performance tests, stored in
+ * {@code ui-performance-thresholds.properties} as
+ * {@code <metric>.<entries>=<milliseconds>}. Slower machines may scale all
+ * thresholds with {@code -Dui.performance.tolerance=1.5}.
+ * <p>
+ * Measured values are written to
+ * {@code target/ui-performance/measurements.properties}, in the same format, so
+ * that thresholds can be updated from a reference run.
+ */
+final class UiPerformanceThresholds {
+
+    private static final String RESOURCE = "ui-performance-thresholds.properties";
+
+    private static final Path MEASUREMENTS = Paths.get("target", "ui-performance", "measurements.properties");
+
+    private final Properties thresholds = new Properties();
+
+    private final Properties measurements = new Properties();
+
+    private final double tolerance;
+
+    private final List<Executable> checks = new ArrayList<>();
+
+    UiPerformanceThresholds() throws IOException {
+        try (InputStream in = UiPerformanceThresholds.class.getResourceAsStream(RESOURCE)) {
+            if (null == in)
+                throw new IOException("Missing " + RESOURCE);
+            thresholds.load(in);
+        }
+        tolerance = Double.parseDouble(System.getProperty("ui.performance.tolerance", "1.0"));
+    }
+
+    /**
+     * Records the measured value, which must not exceed the stored threshold.
+     * 
+     * @param metric   e.g. time-to-first-row
+     * @param entries  number of directory entries of the test
+     * @param measured measured duration in milliseconds
+     */
+    void record(String metric, int entries, double measured) {
+        String key = metric + "." + entries;
+        measurements.setProperty(key, String.format(Locale.ROOT, "%.1f", measured));
+        Logger.getLogger(UiPerformanceThresholds.class.getName())
+              .log(Level.INFO, "{0} = {1} ms", new Object[] {key, measured});
+
+        checks.add(() -> {
+            String stored = thresholds.getProperty(key);
+            assertTrue(null != stored, "No threshold stored for " + key);
+            double threshold = Double.parseDouble(stored) * tolerance;
+            assertTrue(measured <= threshold,
+                    String.format("%s regressed: %.1f ms exceeds threshold of %.1f ms", key, measured, threshold));
+        });
+    }
+
+    /**
+     * Fails with all metrics which exceed their thresholds.
+     */
+    void assertWithinThresholds() {
+        List<Executable> recorded = new ArrayList<>(checks);
+        checks.clear();
+        assertAll(recorded);
+    }
+
+    void writeMeasurements() throws IOException {
+        Files.createDirectories(MEASUREMENTS.getParent());
+        Properties all = new Properties();
+        if (Files.isRegularFile(MEASUREMENTS)) {
+            try (InputStream in = Files.newInputStream(MEASUREMENTS)) {
+                all.load(in);
+            }
+        }
+        all.putAll(measurements);
+        try (OutputStream out = Files.newOutputStream(MEASUREMENTS)) {
+            all.store(out, "UI performance measurements in milliseconds");
+        }
+    }
+}
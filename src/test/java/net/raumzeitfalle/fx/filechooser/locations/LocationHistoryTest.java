@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * FXFileChooser
+ * %%
+ * Copyright (C) 2017 - 2022 Oliver Loeffler, Raumzeitfalle.net
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package net.raumzeitfalle.fx.filechooser.locations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocationHistoryTest {
+
+	private long now = 1_000_000_000L;
+
+	private final Path projects = Paths.get("/projects").toAbsolutePath();
+
+	private final Path reports = Paths.get("/reports").toAbsolutePath();
+
+	private final Path archive = Paths.get("/archive").toAbsolutePath();
+
+	@Test
+	void that_frequently_used_directories_rank_first() {
+		
+		LocationHistory classUnderTest = new LocationHistory(null, 10, () -> now);
+		classUnderTest.record(reports);
+		classUnderTest.record(projects);
+		classUnderTest.record(projects);
+
+		assertEquals(Arrays.asList(projects, reports), pathsOf(classUnderTest.getTopLocations(5)));
+	}
+
+	@Test
+	void that_recent_use_outweighs_old_use() {
+		
+		LocationHistory classUnderTest = new LocationHistory(null, 10, () -> now);
+		classUnderTest.record(archive);
+		classUnderTest.record(archive);
+		classUnderTest.record(archive);
+
+		now += 3 * LocationHistory.HALF_LIFE_MILLIS;
+		classUnderTest.record(reports);
+
+		assertEquals(Arrays.asList(reports, archive), pathsOf(classUnderTest.getTopLocations(5)));
+	}
+
+	@Test
+	void that_lowest_ranked_directories_are_dropped_beyond_capacity() {
+		
+		LocationHistory classUnderTest = new LocationHistory(null, 2, () -> now);
+		classUnderTest.record(projects);
+		classUnderTest.record(projects);
+		classUnderTest.record(reports);
+		classUnderTest.record(reports);
+		classUnderTest.record(archive);
+
+		assertEquals(2, classUnderTest.size());
+		assertEquals(Arrays.asList(projects, reports), pathsOf(classUnderTest.getTopLocations(5)));
+	}
+
+	@Test
+	void that_history_is_restored_from_file(@TempDir Path directory) throws Exception {
+		
+		Path file = directory.resolve("settings").resolve("history.txt");
+		LocationHistory written = new LocationHistory(file, 10, () -> now);
+		written.record(reports);
+		written.record(projects);
+		written.record(projects);
+		written.flush();
+
+		assertTrue(Files.isRegularFile(file));
+		LocationHistory restored = new LocationHistory(file, 10, () -> now);
+		assertEquals(Arrays.asList(projects, reports), pathsOf(restored.getTopLocations(5)));
+	}
+
+	@Test
+	void that_temporary_file_is_removed_when_history_cannot_be_replaced(@TempDir Path directory) throws Exception {
+		
+		Path file = directory.resolve("history.txt");
+		Files.createDirectories(file.resolve("occupied"));
+		LocationHistory classUnderTest = new LocationHistory(file, 10, () -> now);
+		classUnderTest.record(projects);
+		classUnderTest.flush();
+
+		Awaitility.await()
+				  .atMost(Duration.ofSeconds(5))
+				  .until(() -> temporaryFilesIn(directory).isEmpty());
+	}
+
+	@Test
+	void that_invalid_lines_are_skipped(@TempDir Path directory) throws Exception {
+		
+		Path file = directory.resolve("history.txt");
+		Files.write(file, Arrays.asList("# comment", "not a valid line", "x\t1\t/reports",
+				"2.0\t" + now + "\t" + projects));
+
+		LocationHistory classUnderTest = new LocationHistory(file, 10, () -> now);
+		
+		assertEquals(Arrays.asList(projects), pathsOf(classUnderTest.getTopLocations(5)));
+	}
+
+	private static List<Path> pathsOf(List<Location> locations) {
+		return locations.stream().map(Location::getPath).collect(Collectors.toList());
+	}
+
+	private static List<Path> temporaryFilesIn(Path directory) throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.toString().endsWith(".tmp")).collect(Collectors.toList());
+		}
+	}
+}
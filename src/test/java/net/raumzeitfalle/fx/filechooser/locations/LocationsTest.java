@@ -26,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -55,6 +56,16 @@ class LocationsTest {
 		
 	}
 	
+	@Test
+	void resolve_with_file_having_a_parent() throws Exception {
+		
+		Path path = Paths.get("TestData/SomeFiles/TestFile1.txt");
+		Location location = Locations.resolve(path).get(5, TimeUnit.SECONDS);
+		
+		assertEquals(path.getParent(), location.getPath(), "path");
+		
+	}
+	
 	@Test
 	void at_with_directory_having_a_parent() {
 		